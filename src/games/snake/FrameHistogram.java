@@ -0,0 +1,57 @@
+package games.snake;
+
+/**
+ * Histograma de duraciones con cubetas de ancho fijo; lo que pasa del último
+ * límite cae en la última cubeta. Registrar no reserva memoria, así que se
+ * puede usar en cada tick y en cada pintado. No es seguro para hilos: se usa
+ * solo desde el hilo de Swing.
+ */
+final class FrameHistogram {
+    private final long bucketNanos;
+    private final long[] counts;
+    private long total;
+    private long maxNanos;
+
+    FrameHistogram(long bucketNanos, int buckets) {
+        this.bucketNanos = bucketNanos;
+        this.counts = new long[buckets];
+    }
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        int bucket = (int) Math.min(nanos / bucketNanos, counts.length - 1);
+        counts[bucket]++;
+        total++;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    long maxNanos() {
+        return maxNanos;
+    }
+
+    /** Límite superior de la cubeta donde cae el percentil {@code p} (0-100). */
+    long percentileNanos(double p) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * p / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == counts.length - 1 ? maxNanos : (i + 1) * bucketNanos;
+            }
+        }
+        return maxNanos;
+    }
+
+    int buckets() {
+        return counts.length;
+    }
+
+    long bucketCount(int bucket) {
+        return counts[bucket];
+    }
+}
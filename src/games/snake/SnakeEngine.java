@@ -0,0 +1,208 @@
+package games.snake;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * Reglas de Snake sin Swing: tablero de celdas, cuerpo, manzanas y choques.
+ * Cada {@link #step(Direction)} avanza un tick. Con la misma semilla y las
+ * mismas direcciones, la partida es siempre la misma, así que sirve para
+ * bots, pruebas y reproducir partidas. No es seguro para hilos.
+ * <p>
+ * Las celdas se numeran {@code fila * cols + columna}. El cuerpo es un buffer
+ * circular de celdas ({@code body[head]} es la cabeza): avanzar escribe la
+ * cabeza nueva y la cola avanza sola; crecer es no avanzarla. Un bit por celda
+ * ocupada hace del choque consigo misma una sola consulta.
+ */
+public final class SnakeEngine {
+    public enum Direction {
+        UP, DOWN, LEFT, RIGHT;
+
+        boolean isOpposite(Direction other) {
+            return switch (this) {
+                case UP -> other == DOWN;
+                case DOWN -> other == UP;
+                case LEFT -> other == RIGHT;
+                case RIGHT -> other == LEFT;
+            };
+        }
+    }
+
+    private static final int INITIAL_LENGTH = 6;
+    private static final int SAMPLE_TRIES = 64;
+
+    private final int cols;
+    private final int rows;
+    private final int cells;
+    private final int[] body;
+    private final BitSet occupied;
+    private SplittableRandom random;
+    private int head;
+    private int length;
+    private int apple;
+    private int applesEaten;
+    private Direction direction;
+    private boolean running;
+    private long ticks;
+
+    public SnakeEngine(int cols, int rows) {
+        this(cols, rows, System.nanoTime());
+    }
+
+    public SnakeEngine(int cols, int rows, long seed) {
+        if (cols < 2 || rows < 1) {
+            throw new IllegalArgumentException("Tablero inválido: " + cols + "x" + rows);
+        }
+        this.cols = cols;
+        this.rows = rows;
+        this.cells = cols * rows;
+        this.body = new int[cells];
+        this.occupied = new BitSet(cells);
+        reset(seed);
+    }
+
+    /** Empieza otra partida siguiendo con la secuencia aleatoria actual. */
+    public void reset() {
+        reset(random.nextLong());
+    }
+
+    /** Empieza otra partida con la semilla dada. */
+    public void reset(long seed) {
+        random = new SplittableRandom(seed);
+        occupied.clear();
+        length = Math.min(INITIAL_LENGTH, cols / 2 + 1);
+        applesEaten = 0;
+        ticks = 0;
+        direction = Direction.RIGHT;
+        running = true;
+        int start = (rows / 2) * cols + cols / 2;
+        // La cola queda en body[0] y la cabeza en body[length - 1].
+        head = length - 1;
+        for (int i = 0; i < length; i++) {
+            body[head - i] = start - i;
+            occupied.set(start - i);
+        }
+        placeApple();
+    }
+
+    /**
+     * Avanza un tick hacia {@code requested}; si es la dirección contraria a
+     * la actual se sigue derecho. Devuelve si la partida sigue en curso.
+     */
+    public boolean step(Direction requested) {
+        if (!running) {
+            return false;
+        }
+        if (requested != null && !requested.isOpposite(direction)) {
+            direction = requested;
+        }
+        ticks++;
+        int col = body[head] % cols;
+        int row = body[head] / cols;
+        switch (direction) {
+            case UP -> row--;
+            case DOWN -> row++;
+            case LEFT -> col--;
+            case RIGHT -> col++;
+        }
+        if (col < 0 || col >= cols || row < 0 || row >= rows) {
+            running = false;
+            return false;
+        }
+        int next = row * cols + col;
+        if (next == apple) {
+            // Crece: la cola no se mueve.
+            length++;
+            applesEaten++;
+        } else {
+            // La cola deja su celda antes de mirar la nueva: entrar donde
+            // estaba la cola es válido.
+            occupied.clear(segment(length - 1));
+            if (occupied.get(next)) {
+                occupied.set(segment(length - 1));
+                running = false;
+                return false;
+            }
+        }
+        head = (head + 1) % cells;
+        body[head] = next;
+        occupied.set(next);
+        if (next == apple) {
+            placeApple();
+        }
+        return true;
+    }
+
+    /**
+     * Elige una celda libre al azar, uniforme entre todas. Con al menos un
+     * cuarto del tablero libre se sortean celdas hasta dar con una libre; si
+     * no, se elige la k-ésima celda libre recorriendo el bitset. Si no queda
+     * ninguna, no hay manzana.
+     */
+    private void placeApple() {
+        int free = cells - length;
+        apple = -1;
+        if (free <= 0) {
+            return;
+        }
+        if (free * 4 >= cells) {
+            for (int tries = 0; tries < SAMPLE_TRIES; tries++) {
+                int cell = random.nextInt(cells);
+                if (!occupied.get(cell)) {
+                    apple = cell;
+                    return;
+                }
+            }
+        }
+        int cell = occupied.nextClearBit(0);
+        for (int k = random.nextInt(free); k > 0; k--) {
+            cell = occupied.nextClearBit(cell + 1);
+        }
+        apple = cell;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Direction direction() {
+        return direction;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int applesEaten() {
+        return applesEaten;
+    }
+
+    public long ticks() {
+        return ticks;
+    }
+
+    /** Celda de la manzana, o -1 si el tablero está lleno. */
+    public int appleCell() {
+        return apple;
+    }
+
+    /** Celda del segmento {@code i}, contando desde la cabeza (0). */
+    public int segment(int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return body[(head - i + cells) % cells];
+    }
+
+    public boolean isOccupied(int cell) {
+        return occupied.get(cell);
+    }
+}
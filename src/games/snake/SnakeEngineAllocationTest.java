@@ -0,0 +1,57 @@
+package games.snake;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+/**
+ * Comprueba que {@link SnakeEngine#step} no reserva memoria: un bot al azar
+ * juega partidas seguidas y se suman los bytes que reservó este hilo
+ * ({@code ThreadMXBean}) mientras solo se llamaba a {@code step}; los
+ * {@code reset} entre partidas quedan fuera de la cuenta. Termina con código 1
+ * si la suma no es cero.
+ * Uso: {@code java games.snake.SnakeEngineAllocationTest [ticks]}
+ */
+public final class SnakeEngineAllocationTest {
+    private static final SnakeEngine.Direction[] DIRECTIONS = SnakeEngine.Direction.values();
+
+    private SnakeEngineAllocationTest() {
+    }
+
+    public static void main(String[] args) {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads)
+                || !threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("Esta JVM no mide la memoria reservada por hilo.");
+            System.exit(2);
+            return;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000L;
+        SnakeEngine engine = new SnakeEngine(18, 18, 1);
+        SplittableRandom bot = new SplittableRandom(2);
+        long threadId = Thread.currentThread().threadId();
+
+        // Primero sin medir, para que el JIT compile step.
+        play(engine, bot, threads, threadId, ticks / 10);
+        long[] result = play(engine, bot, threads, threadId, ticks);
+        System.out.printf("%d ticks, %d partidas, %d bytes reservados por step%n", ticks, result[1], result[0]);
+        System.exit(result[0] == 0 ? 0 : 1);
+    }
+
+    /** Devuelve los bytes reservados durante los step y la cantidad de partidas. */
+    private static long[] play(SnakeEngine engine, SplittableRandom bot,
+                               com.sun.management.ThreadMXBean threads, long threadId, long ticks) {
+        long allocated = 0;
+        long games = 0;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (long i = 0; i < ticks; i++) {
+            if (!engine.step(DIRECTIONS[bot.nextInt(DIRECTIONS.length)])) {
+                allocated += threads.getThreadAllocatedBytes(threadId) - before;
+                engine.reset();
+                games++;
+                before = threads.getThreadAllocatedBytes(threadId);
+            }
+        }
+        allocated += threads.getThreadAllocatedBytes(threadId) - before;
+        return new long[] {allocated, games};
+    }
+}
@@ -7,8 +7,6 @@ import gamesplugin.Stat;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.Iterator;
-import java.util.NoSuchElementException;
 
 public class SnakeGame extends JInternalFrame implements GameFunction {
     private GameListener listener;
@@ -48,24 +46,63 @@ public class SnakeGame extends JInternalFrame implements GameFunction {
         return new Stat("Snake", playerName, score);
     }
 
+    /**
+     * Vista Swing de un {@link SnakeEngine}: traduce teclas a direcciones,
+     * avanza el motor y pinta su estado.
+     * <p>
+     * El motor avanza a paso fijo ({@code DELAY} ms por tick) sin depender de
+     * cuándo llegan los eventos del timer: cada cuadro suma el tiempo real
+     * transcurrido ({@link System#nanoTime()}) y ejecuta los ticks que
+     * correspondan, así que un cuadro atrasado se recupera con varios ticks
+     * seguidos. El timer solo marca los cuadros ({@code FRAME_DELAY} ms). La
+     * tecla M muestra los histogramas del intervalo entre ticks y del tiempo
+     * de pintado.
+     */
     private class GamePanel extends JPanel implements ActionListener, KeyListener {
         private final int UNIT_SIZE = 20;
         private final int BOARD_SIZE = 360;
         private final int PADDING = 20;
         private final int DELAY = 120;
+        private final int FRAME_DELAY = 15;
+        private final long TICK_NANOS = java.util.concurrent.TimeUnit.MILLISECONDS.toNanos(DELAY);
+        // Más atraso que esto (ventana arrastrada, equipo suspendido) se descarta
+        // en vez de jugarlo de golpe.
+        private final int MAX_CATCH_UP = 5;
         private final int SCREEN_WIDTH = BOARD_SIZE + PADDING * 2;
         private final int SCREEN_HEIGHT = BOARD_SIZE + PADDING * 2 + 60;
-        private final int GAME_UNITS = ((BOARD_SIZE / UNIT_SIZE) * (BOARD_SIZE / UNIT_SIZE));
+        private final int COLS = BOARD_SIZE / UNIT_SIZE;
+        private final int ROWS = BOARD_SIZE / UNIT_SIZE;
 
-        private final int[] x = new int[GAME_UNITS];
-        private final int[] y = new int[GAME_UNITS];
-        private final java.util.Random random = new java.util.Random();
-        private int bodyParts = 6;
-        private int applesEaten;
-        private int appleX;
-        private int appleY;
-        private char direction = 'R';
-        private boolean running = false;
+        // Lo que se pinta en cada cuadro se crea una sola vez: pintar no reserva memoria.
+        private final Color BODY_COLOR = new Color(45, 180, 0);
+        private final Font SCORE_FONT = new Font("Arial", Font.BOLD, 20);
+        private final Font PAUSE_FONT = new Font("Arial", Font.BOLD, 32);
+        private final Font GAME_OVER_FONT = new Font("Arial", Font.BOLD, 40);
+        private final String PAUSE_MSG = "PAUSA";
+        private final String GAME_OVER_MSG = "Game Over";
+        private FontMetrics scoreMetrics;
+        private int pauseX;
+        private int gameOverX;
+        private String scoreText;
+        private int scoreTextX;
+        private int scoreTextFor = -1;
+
+        private final FrameHistogram tickIntervals = new FrameHistogram(1_000_000L, DELAY * 2 + 10);
+        private final FrameHistogram paintTimes = new FrameHistogram(50_000L, 200);
+        private final Color METRICS_BACKGROUND = new Color(0, 0, 0, 190);
+        private final Font METRICS_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+        private final long METRICS_REFRESH_NANOS = 500_000_000L;
+        private boolean showMetrics;
+        private final String[] metricsText = new String[3];
+        private long metricsUpdated;
+        private long lastFrame;
+        private long lastTick;
+        private long accumulator;
+        private long caughtUpTicks;
+        private long droppedTicks;
+
+        private final SnakeEngine engine = new SnakeEngine(COLS, ROWS);
+        private SnakeEngine.Direction direction = SnakeEngine.Direction.RIGHT;
         private boolean paused = false;
         private javax.swing.Timer timer;
         private JButton btnReiniciar;
@@ -93,177 +130,159 @@ public class SnakeGame extends JInternalFrame implements GameFunction {
 
         private void mostrarControles() {
             JOptionPane.showMessageDialog(this,
-                    "CONTROL SNAKE:\n- Flechas: mover\n- Barra espaciadora: pausar/continuar\n- Aparecen al azar manzanas (rojas).\n¡No choques contigo o los bordes!",
+                    "CONTROL SNAKE:\n- Flechas: mover\n- Barra espaciadora: pausar/continuar\n- M: ver métricas de tiempo\n- Aparecen al azar manzanas (rojas).\n¡No choques contigo o los bordes!",
                     "Controles", JOptionPane.INFORMATION_MESSAGE);
         }
 
         public void startGame() {
             resetState();
-            timer = new javax.swing.Timer(DELAY, this);
+            timer = new javax.swing.Timer(FRAME_DELAY, this);
             timer.start();
         }
 
         private void resetState() {
-            bodyParts = 6;
-            applesEaten = 0;
-            direction = 'R';
-            running = true;
+            engine.reset();
+            direction = SnakeEngine.Direction.RIGHT;
             paused = false;
-            int cols = BOARD_SIZE / UNIT_SIZE;
-            int rows = BOARD_SIZE / UNIT_SIZE;
-            int startX = PADDING + (cols / 2) * UNIT_SIZE;
-            int startY = PADDING + (rows / 2) * UNIT_SIZE;
-            for (int i = 0; i < bodyParts; i++) {
-                x[i] = startX - i * UNIT_SIZE;
-                y[i] = startY;
-            }
-            for (int i = bodyParts; i < x.length; i++) {
-                x[i] = -UNIT_SIZE;
-                y[i] = -UNIT_SIZE;
-            }
-            newApple();
+            lastFrame = System.nanoTime();
+            lastTick = 0;
+            accumulator = 0;
         }
 
         @Override
         public void paintComponent(Graphics g) {
+            long start = System.nanoTime();
             super.paintComponent(g);
             g.setColor(Color.DARK_GRAY);
             g.drawRect(PADDING, PADDING, BOARD_SIZE, BOARD_SIZE); // Borde visible
             draw(g);
+            paintTimes.record(System.nanoTime() - start);
+            if (showMetrics) {
+                drawMetrics(g);
+            }
         }
 
         public void draw(Graphics g) {
-            if (running) {
-                g.setColor(Color.red);
-                g.fillOval(appleX, appleY, UNIT_SIZE, UNIT_SIZE);
-                boolean headDrawn = false;
-                for (Point segment : snakeSegments()) {
-                    if (!headDrawn) {
-                        g.setColor(Color.green);
-                        headDrawn = true;
-                    } else {
-                        g.setColor(new Color(45, 180, 0));
-                    }
-                    g.fillRect(segment.x, segment.y, UNIT_SIZE, UNIT_SIZE);
+            if (engine.isRunning()) {
+                int apple = engine.appleCell();
+                if (apple >= 0) {
+                    g.setColor(Color.red);
+                    g.fillOval(cellX(apple), cellY(apple), UNIT_SIZE, UNIT_SIZE);
+                }
+                g.setColor(Color.green);
+                int cell = engine.segment(0);
+                g.fillRect(cellX(cell), cellY(cell), UNIT_SIZE, UNIT_SIZE);
+                g.setColor(BODY_COLOR);
+                int length = engine.length();
+                for (int i = 1; i < length; i++) {
+                    cell = engine.segment(i);
+                    g.fillRect(cellX(cell), cellY(cell), UNIT_SIZE, UNIT_SIZE);
                 }
                 // Puntaje centrado arriba
-                String puntajeTxt = "Puntaje: " + applesEaten;
+                updateTextLayout();
                 g.setColor(Color.white);
-                g.setFont(new Font("Arial", Font.BOLD, 20));
-                FontMetrics fm = g.getFontMetrics();
-                int xTxt = PADDING + (BOARD_SIZE - fm.stringWidth(puntajeTxt)) / 2;
-                g.drawString(puntajeTxt, xTxt, PADDING - 5);
+                g.setFont(SCORE_FONT);
+                g.drawString(scoreText, scoreTextX, PADDING - 5);
 
                 if(paused) {
-                    g.setFont(new Font("Arial", Font.BOLD, 32));
-                    String pauseMsg = "PAUSA";
-                    int px = (SCREEN_WIDTH - fm.stringWidth(pauseMsg)) / 2;
+                    g.setFont(PAUSE_FONT);
                     g.setColor(Color.yellow);
-                    g.drawString(pauseMsg, px, SCREEN_HEIGHT/2);
+                    g.drawString(PAUSE_MSG, pauseX, SCREEN_HEIGHT/2);
                 }
             } else {
                 gameOver(g);
             }
         }
 
-        public void newApple() {
-            java.util.List<Point> libres = new java.util.ArrayList<>();
-            int cols = BOARD_SIZE / UNIT_SIZE;
-            int rows = BOARD_SIZE / UNIT_SIZE;
-            for (int i = 0; i < cols; i++) {
-                for (int j = 0; j < rows; j++) {
-                    boolean ocupado = false;
-                    int px = PADDING + i * UNIT_SIZE;
-                    int py = PADDING + j * UNIT_SIZE;
-                    for (Point segment : snakeSegments()) {
-                        if (segment.x == px && segment.y == py) {
-                            ocupado = true;
-                            break;
-                        }
-                    }
-                    if (!ocupado) {
-                        libres.add(new Point(px, py));
-                    }
-                }
+        /** Mide los textos fijos la primera vez y rearma el del puntaje solo cuando cambia. */
+        private void updateTextLayout() {
+            if (scoreMetrics == null) {
+                scoreMetrics = getFontMetrics(SCORE_FONT);
+                pauseX = (SCREEN_WIDTH - getFontMetrics(PAUSE_FONT).stringWidth(PAUSE_MSG)) / 2;
+                gameOverX = (SCREEN_WIDTH - getFontMetrics(GAME_OVER_FONT).stringWidth(GAME_OVER_MSG)) / 2;
             }
-            if (!libres.isEmpty()) {
-                Point p = libres.get(random.nextInt(libres.size()));
-                appleX = p.x;
-                appleY = p.y;
-            } else {
-                appleX = SCREEN_WIDTH / 2;
-                appleY = SCREEN_HEIGHT / 2;
+            if (scoreTextFor != engine.applesEaten()) {
+                scoreTextFor = engine.applesEaten();
+                scoreText = "Puntaje: " + scoreTextFor;
+                scoreTextX = PADDING + (BOARD_SIZE - scoreMetrics.stringWidth(scoreText)) / 2;
             }
-            repaint();
         }
 
-
-        public void move() {
-            for (int i = bodyParts; i > 0; i--) {
-                x[i] = x[i - 1];
-                y[i] = y[i - 1];
-            }
-            switch (direction) {
-                case 'U': y[0] -= UNIT_SIZE; break;
-                case 'D': y[0] += UNIT_SIZE; break;
-                case 'L': x[0] -= UNIT_SIZE; break;
-                case 'R': x[0] += UNIT_SIZE; break;
+        private void drawMetrics(Graphics g) {
+            long now = System.nanoTime();
+            if (metricsText[0] == null || now - metricsUpdated >= METRICS_REFRESH_NANOS) {
+                metricsUpdated = now;
+                metricsText[0] = describe("Tick (ms)", tickIntervals);
+                metricsText[1] = describe("Pintado (ms)", paintTimes);
+                metricsText[2] = "Ticks recuperados: " + caughtUpTicks + "  descartados: " + droppedTicks;
             }
+            int x = PADDING + 5;
+            int y = PADDING + 5;
+            int width = BOARD_SIZE - 10;
+            g.setColor(METRICS_BACKGROUND);
+            g.fillRect(x, y, width, 150);
+            g.setFont(METRICS_FONT);
+            g.setColor(Color.white);
+            g.drawString(metricsText[0], x + 5, y + 14);
+            drawBars(g, tickIntervals, x + 5, y + 20, width - 10, 40);
+            g.setColor(Color.white);
+            g.drawString(metricsText[1], x + 5, y + 78);
+            drawBars(g, paintTimes, x + 5, y + 84, width - 10, 40);
+            g.setColor(Color.white);
+            g.drawString(metricsText[2], x + 5, y + 142);
         }
 
-        public void checkApple() {
-            if ((x[0] == appleX) && (y[0] == appleY)) {
-                bodyParts++;
-                applesEaten++;
-                newApple();
-            }
+        private String describe(String label, FrameHistogram histogram) {
+            return String.format("%-12s p50 %5.1f  p95 %5.1f  p99 %5.1f  m\u00E1x %5.1f", label,
+                    histogram.percentileNanos(50) / 1e6, histogram.percentileNanos(95) / 1e6,
+                    histogram.percentileNanos(99) / 1e6, histogram.maxNanos() / 1e6);
         }
 
-        public void checkCollisions() {
-            Iterator<Point> iterator = snakeSegments().iterator();
-            if (iterator.hasNext()) {
-                Point head = iterator.next();
-                while (iterator.hasNext()) {
-                    Point segment = iterator.next();
-                    if (head.equals(segment)) {
-                        running = false;
-                        break;
-                    }
-                }
+        /** Una barra por grupo de cubetas, escaladas a la más alta. */
+        private void drawBars(Graphics g, FrameHistogram histogram, int x, int y, int width, int height) {
+            int bars = Math.min(histogram.buckets(), width / 3);
+            int perBar = (histogram.buckets() + bars - 1) / bars;
+            long highest = 1;
+            for (int bar = 0; bar < bars; bar++) {
+                highest = Math.max(highest, barCount(histogram, bar, perBar));
             }
-            if (x[0] < PADDING || x[0] > PADDING + BOARD_SIZE - UNIT_SIZE || y[0] < PADDING || y[0] > PADDING + BOARD_SIZE - UNIT_SIZE) {
-                running = false;
+            g.setColor(Color.DARK_GRAY);
+            g.drawLine(x, y + height, x + width, y + height);
+            g.setColor(Color.cyan);
+            int barWidth = width / bars;
+            for (int bar = 0; bar < bars; bar++) {
+                long count = barCount(histogram, bar, perBar);
+                if (count > 0) {
+                    int barHeight = (int) Math.max(1, count * height / highest);
+                    g.fillRect(x + bar * barWidth, y + height - barHeight, Math.max(1, barWidth - 1), barHeight);
+                }
             }
+        }
 
-            if (!running) {
-                timer.stop();
-                score = applesEaten;
-                if (listener != null) {
-                    listener.onGameFinished(new GameStats("Puntaje", playerName, score));
-                }
-                btnReiniciar.setVisible(true);
+        private long barCount(FrameHistogram histogram, int bar, int perBar) {
+            long count = 0;
+            int end = Math.min(histogram.buckets(), (bar + 1) * perBar);
+            for (int bucket = bar * perBar; bucket < end; bucket++) {
+                count += histogram.bucketCount(bucket);
             }
+            return count;
         }
 
-        private Iterable<Point> snakeSegments() {
-            return () -> new Iterator<Point>() {
-                private int index = 0;
+        private int cellX(int cell) {
+            return PADDING + (cell % COLS) * UNIT_SIZE;
+        }
 
-                @Override
-                public boolean hasNext() {
-                    return index < bodyParts;
-                }
+        private int cellY(int cell) {
+            return PADDING + (cell / COLS) * UNIT_SIZE;
+        }
 
-                @Override
-                public Point next() {
-                    if (!hasNext()) {
-                        throw new NoSuchElementException();
-                    }
-                    Point current = new Point(x[index], y[index]);
-                    index++;
-                    return current;
-                }
-            };
+        private void finishGame() {
+            timer.stop();
+            score = engine.applesEaten();
+            if (listener != null) {
+                listener.onGameFinished(new GameStats("Puntaje", playerName, score));
+            }
+            btnReiniciar.setVisible(true);
         }
 
         private void reiniciarJuego() {
@@ -273,22 +292,49 @@ public class SnakeGame extends JInternalFrame implements GameFunction {
         }
 
         public void gameOver(Graphics g) {
+            updateTextLayout();
             g.setColor(Color.red);
-            g.setFont(new Font("Arial", Font.BOLD, 40));
-            FontMetrics fm = g.getFontMetrics();
-            String msj = "Game Over";
-            g.drawString(msj, (SCREEN_WIDTH - fm.stringWidth(msj)) / 2, SCREEN_HEIGHT / 2);
+            g.setFont(GAME_OVER_FONT);
+            g.drawString(GAME_OVER_MSG, gameOverX, SCREEN_HEIGHT / 2);
         }
 
         // ----- ActionListener -----
         @Override
         public void actionPerformed(ActionEvent e) {
-            if (running && !paused) {
-                move();
-                checkApple();
-                checkCollisions();
+            long now = System.nanoTime();
+            boolean ticked = false;
+            if (engine.isRunning() && !paused) {
+                accumulator += now - lastFrame;
+                int steps = 0;
+                while (accumulator >= TICK_NANOS && engine.isRunning()) {
+                    if (steps == MAX_CATCH_UP) {
+                        droppedTicks += accumulator / TICK_NANOS;
+                        accumulator %= TICK_NANOS;
+                        break;
+                    }
+                    accumulator -= TICK_NANOS;
+                    if (steps == 0) {
+                        // Una muestra por cuadro: los ticks de recuperación caen en
+                        // el mismo instante y sumarían intervalos de 0 ns.
+                        if (lastTick != 0) {
+                            tickIntervals.record(now - lastTick);
+                        }
+                        lastTick = now;
+                    } else {
+                        caughtUpTicks++;
+                    }
+                    steps++;
+                    ticked = true;
+                    if (!engine.step(direction)) {
+                        finishGame();
+                    }
+                }
+            }
+            lastFrame = now;
+            // Sin ticks el tablero no cambió; solo se repinta si hay métricas a la vista.
+            if (ticked || showMetrics) {
+                repaint();
             }
-            repaint();
         }
 
         // ----- KeyListener -----
@@ -296,14 +342,21 @@ public class SnakeGame extends JInternalFrame implements GameFunction {
         public void keyPressed(KeyEvent e) {
             if (e.getKeyCode() == KeyEvent.VK_SPACE) {
                 paused = !paused;
+                // El primer tick tras reanudar no debe medir la pausa entera.
+                lastTick = 0;
+                repaint();
+            }
+            if (e.getKeyCode() == KeyEvent.VK_M) {
+                showMetrics = !showMetrics;
                 repaint();
             }
             if (!paused) {
+                // El motor ignora la dirección contraria a la que lleva.
                 switch (e.getKeyCode()) {
-                    case KeyEvent.VK_LEFT: if (direction != 'R') direction = 'L'; break;
-                    case KeyEvent.VK_RIGHT: if (direction != 'L') direction = 'R'; break;
-                    case KeyEvent.VK_UP: if (direction != 'D') direction = 'U'; break;
-                    case KeyEvent.VK_DOWN: if (direction != 'U') direction = 'D'; break;
+                    case KeyEvent.VK_LEFT: direction = SnakeEngine.Direction.LEFT; break;
+                    case KeyEvent.VK_RIGHT: direction = SnakeEngine.Direction.RIGHT; break;
+                    case KeyEvent.VK_UP: direction = SnakeEngine.Direction.UP; break;
+                    case KeyEvent.VK_DOWN: direction = SnakeEngine.Direction.DOWN; break;
                 }
             }
         }
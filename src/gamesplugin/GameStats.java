@@ -9,10 +9,14 @@ public class GameStats extends Stat {
         super(clave, nombre, valor);
     }
 
+    public GameStats(String clave, String nombre, int valor, long fecha) {
+        super(clave, nombre, valor, fecha);
+    }
+
     public static GameStats fromStat(Stat stat) {
         if (stat instanceof GameStats gameStats) {
             return gameStats;
         }
-        return new GameStats(stat.getClave(), stat.getNombre(), stat.getValor());
+        return new GameStats(stat.getClave(), stat.getNombre(), stat.getValor(), stat.getFecha());
     }
 }
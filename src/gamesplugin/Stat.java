@@ -4,11 +4,21 @@ public class Stat {
     private String clave;
     private String nombre;
     private int valor;
+    private long fecha;
 
     public Stat(String clave, String nombre, int valor) {
+        this(clave, nombre, valor, System.currentTimeMillis());
+    }
+
+    /**
+     * @param fecha momento del resultado en milisegundos desde epoch;
+     *              0 si se desconoce (registros anteriores a las fechas).
+     */
+    public Stat(String clave, String nombre, int valor, long fecha) {
         this.clave = clave;
         this.nombre = nombre;
         this.valor = valor;
+        this.fecha = fecha;
     }
 
     public String getClave() {
@@ -34,4 +44,12 @@ public class Stat {
     public void setValor(int valor) {
         this.valor = valor;
     }
+
+    public long getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(long fecha) {
+        this.fecha = fecha;
+    }
 }
@@ -1,5 +1,7 @@
 package main;
 
+import main.model.GameRegistry;
+import main.model.PluginMonitor;
 import main.view.MainView;
 import javax.swing.*;
 
@@ -8,6 +10,10 @@ public class MainApp {
         SwingUtilities.invokeLater(() -> {
             MainView frame = new MainView();
             frame.setVisible(true);
+            GameRegistry registry = GameRegistry.getInstance();
+            registry.prewarmFrequentGames();
+            registry.startPluginWatcher();
+            PluginMonitor.getInstance().start();
         });
     }
 }
@@ -2,11 +2,17 @@ package main.controller;
 
 import gamesplugin.*;
 import main.model.GameRegistry;
+import main.model.GameSession;
+import main.model.PluginMonitor;
 import main.model.StatsManager;
 import main.view.MainView;
 import main.view.StatsView;
 
 import javax.swing.*;
+import javax.swing.event.InternalFrameAdapter;
+import javax.swing.event.InternalFrameEvent;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
 import java.beans.PropertyVetoException;
 import java.io.File;
 import java.util.List;
@@ -15,20 +21,29 @@ public class GameController {
     private final MainView mainView;
     private final GameRegistry gameRegistry;
     private final StatsManager statsManager;
+    private final PluginMonitor pluginMonitor;
 
     public GameController(MainView mainView) {
         this.mainView = mainView;
         this.gameRegistry = GameRegistry.getInstance();
         this.statsManager = StatsManager.getInstance();
+        this.pluginMonitor = PluginMonitor.getInstance();
     }
 
     public void loadGame(String gameName) {
+        GameSession session = null;
         try {
-            GameFunction game = gameRegistry.getGame(gameName);
+            // Cada clic abre una partida propia; la instancia vuelve al pool
+            // cuando se cierra su ventana.
+            session = gameRegistry.openSession(gameName);
+            GameFunction game = session.game();
+            PluginMonitor.CallbackStart callback =
+                    pluginMonitor.beginCallback(PluginMonitor.pluginIdOf(game.getClass()));
             game.setGameListener(new ControllerListener(gameName));
 
             // Crear internal frame para el juego
             JInternalFrame gameFrame = game.iniciar();
+            pluginMonitor.endCallback(callback);
             if (gameFrame == null && game instanceof JInternalFrame jf) {
                 gameFrame = jf;
             }
@@ -39,10 +54,16 @@ public class GameController {
                     } catch (PropertyVetoException ignored) {
                     }
                 }
+                new SessionReleaser(gameFrame, session);
                 mainView.addInternalFrame(gameFrame);
+            } else {
+                session.close();
             }
 
         } catch (Exception e) {
+            if (session != null) {
+                session.close();
+            }
             JOptionPane.showMessageDialog(mainView,
                     "Error al cargar el juego: " + e.getMessage(),
                     "Error",
@@ -59,19 +80,74 @@ public class GameController {
         return gameRegistry.getAvailableGames();
     }
 
+    public void addGamesListener(GameRegistry.Listener listener) {
+        gameRegistry.addListener(listener);
+    }
+
     public List<GameRegistry.GameInfo> loadExternalGamesFromJar(File jarFile) throws Exception {
         return gameRegistry.loadGamesFromJar(jarFile);
     }
 
+    public List<GameRegistry.GameInfo> loadExternalGames(List<File> selection) throws Exception {
+        if (selection.size() == 1 && selection.get(0).isDirectory()) {
+            return gameRegistry.loadGamesFromDirectory(selection.get(0));
+        }
+        return gameRegistry.loadGamesFromJars(selection);
+    }
+
     private void handleGameFinished(String gameId, GameStats stats) {
-        statsManager.addStat(gameId, stats);
-        statsManager.saveStats();
-        JOptionPane.showMessageDialog(
+        statsManager.recordStat(gameId, stats);
+        // El diálogo se muestra después de que el juego termine su callback.
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(
                 mainView,
                 "Juego terminado!\n" + stats.getClave() + ": " + stats.getValor(),
                 "Resultado",
                 JOptionPane.INFORMATION_MESSAGE
-        );
+        ));
+    }
+
+    /**
+     * Cierra la sesión cuando su ventana se oculta (HIDE_ON_CLOSE) o se cierra
+     * (DISPOSE_ON_CLOSE) y deja de escuchar la ventana, que puede reutilizarse.
+     */
+    private static final class SessionReleaser extends InternalFrameAdapter implements ComponentListener {
+        private final JInternalFrame frame;
+        private final GameSession session;
+
+        private SessionReleaser(JInternalFrame frame, GameSession session) {
+            this.frame = frame;
+            this.session = session;
+            frame.addInternalFrameListener(this);
+            frame.addComponentListener(this);
+        }
+
+        private void release() {
+            frame.removeInternalFrameListener(this);
+            frame.removeComponentListener(this);
+            session.close();
+        }
+
+        @Override
+        public void internalFrameClosed(InternalFrameEvent e) {
+            release();
+        }
+
+        @Override
+        public void componentHidden(ComponentEvent e) {
+            release();
+        }
+
+        @Override
+        public void componentResized(ComponentEvent e) {
+        }
+
+        @Override
+        public void componentMoved(ComponentEvent e) {
+        }
+
+        @Override
+        public void componentShown(ComponentEvent e) {
+        }
     }
 
     private class ControllerListener implements GameListener {
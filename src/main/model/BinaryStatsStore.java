@@ -0,0 +1,200 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot binario de estadísticas. Se lee entero a memoria de una vez, sin
+ * dejar el archivo mapeado ni abierto.
+ * <pre>
+ * cabecera : magic(int) version(int) cadenas(int) registros(int) crc32(int)
+ * cadenas  : por cada una, longitud(int) + bytes UTF-8
+ * registros: juego(int) clave(int) nombre(int) valor(int) fecha(long);
+ *            los tres primeros son índices a la tabla
+ * </pre>
+ * El CRC32 cubre todo lo que sigue a la cabecera. Las versiones 1 (sin
+ * fecha, registros de 16 bytes) y 2 (sin checksum) se siguen leyendo.
+ * La escritura pasa por {@link SnapshotFiles#writeAtomically}.
+ * Cada cadena distinta (ids de juego, claves y nombres) se guarda y se
+ * decodifica una sola vez; los registros son de ancho fijo.
+ */
+public class BinaryStatsStore implements StatsStore {
+    private static final int MAGIC = 0x53544231; // "STB1"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 20;
+    private static final int LEGACY_HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 24;
+    private static final int RECORD_BYTES_V1 = 16;
+
+    private final Path file;
+
+    public BinaryStatsStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public boolean exists() {
+        return SnapshotFiles.exists(file);
+    }
+
+    @Override
+    public long size() throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    @Override
+    public Map<String, List<Stat>> load() throws IOException {
+        return SnapshotFiles.loadWithFallback(file, this::loadFrom);
+    }
+
+    private Map<String, List<Stat>> loadFrom(Path source) throws IOException {
+        try {
+            // Se copia a memoria en vez de mapear: un MappedByteBuffer mantiene el
+            // archivo abierto hasta que lo recolecta el GC, y en Windows eso impide
+            // reemplazarlo o borrarlo al guardar el siguiente snapshot.
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(source));
+            if (buffer.remaining() < LEGACY_HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("Formato de estadísticas desconocido: " + source);
+            }
+            int version = buffer.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versión de estadísticas no soportada: " + version);
+            }
+            int stringCount = buffer.getInt();
+            int recordCount = buffer.getInt();
+            if (version >= 3) {
+                int expected = buffer.getInt();
+                CRC32 crc = new CRC32();
+                crc.update(buffer.duplicate());
+                if ((int) crc.getValue() != expected) {
+                    throw new IOException("Checksum inválido en " + source);
+                }
+            }
+
+            // Las versiones 1 y 2 no tienen checksum: los tamaños se validan antes
+            // de reservar memoria para que un archivo dañado sea una IOException
+            // y se pueda usar la generación anterior.
+            checkCount(stringCount, buffer.remaining() / 4, "cadenas", source);
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[64];
+            for (int i = 0; i < stringCount; i++) {
+                int length = checkCount(buffer.getInt(), buffer.remaining(), "bytes de cadena", source);
+                if (length > scratch.length) {
+                    scratch = new byte[Math.max(length, scratch.length * 2)];
+                }
+                buffer.get(scratch, 0, length);
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            int recordBytes = version == 1 ? RECORD_BYTES_V1 : RECORD_BYTES;
+            if (recordCount < 0 || buffer.remaining() < (long) recordCount * recordBytes) {
+                throw new IOException("Archivo de estadísticas truncado: " + source);
+            }
+            Map<String, List<Stat>> loaded = new HashMap<>();
+            String currentGame = null;
+            List<Stat> currentList = null;
+            for (int i = 0; i < recordCount; i++) {
+                String game = strings[buffer.getInt()];
+                String clave = strings[buffer.getInt()];
+                String nombre = strings[buffer.getInt()];
+                int valor = buffer.getInt();
+                long fecha = version == 1 ? 0L : buffer.getLong();
+                if (game != currentGame) {
+                    currentGame = game;
+                    currentList = loaded.computeIfAbsent(game, k -> new ArrayList<>());
+                }
+                currentList.add(new Stat(clave, nombre, valor, fecha));
+            }
+            return loaded;
+        } catch (IndexOutOfBoundsException | java.nio.BufferUnderflowException e) {
+            throw new IOException("Archivo de estadísticas corrupto: " + source, e);
+        }
+    }
+
+    private static int checkCount(int count, long max, String what, Path source) throws IOException {
+        if (count < 0 || count > max) {
+            throw new IOException("Cantidad de " + what + " inválida (" + count + ") en " + source);
+        }
+        return count;
+    }
+
+    @Override
+    public void save(Map<String, List<Stat>> stats) throws IOException {
+        Map<String, Integer> table = new LinkedHashMap<>();
+        int recordCount = 0;
+        for (Map.Entry<String, List<Stat>> entry : stats.entrySet()) {
+            intern(table, entry.getKey());
+            for (Stat stat : entry.getValue()) {
+                intern(table, stat.getClave());
+                intern(table, stat.getNombre());
+                recordCount++;
+            }
+        }
+
+        List<byte[]> encoded = new ArrayList<>(table.size());
+        long stringBytes = 0;
+        for (String value : table.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            stringBytes += 4 + bytes.length;
+        }
+        long total = HEADER_BYTES + stringBytes + (long) recordCount * RECORD_BYTES;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Demasiadas estadísticas para el formato binario");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(table.size()).putInt(recordCount).putInt(0);
+        for (byte[] bytes : encoded) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        for (Map.Entry<String, List<Stat>> entry : stats.entrySet()) {
+            int game = table.get(entry.getKey());
+            for (Stat stat : entry.getValue()) {
+                buffer.putInt(game)
+                        .putInt(table.get(nullToEmpty(stat.getClave())))
+                        .putInt(table.get(nullToEmpty(stat.getNombre())))
+                        .putInt(stat.getValor())
+                        .putLong(stat.getFecha());
+            }
+        }
+        buffer.flip();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_BYTES));
+        buffer.putInt(HEADER_BYTES - 4, (int) crc.getValue());
+        SnapshotFiles.writeAtomically(file, channel -> {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        });
+    }
+
+    private static void intern(Map<String, Integer> table, String value) {
+        table.putIfAbsent(nullToEmpty(value), table.size());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Convierte {@code stats.json} (o la ruta indicada) al formato binario.
+     * Uso: {@code java main.model.BinaryStatsStore [origen.json] [destino.bin]}
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = Path.of(args.length > 0 ? args[0] : "stats.json");
+        Path target = Path.of(args.length > 1 ? args[1] : "stats.bin");
+        StatsStore.convert(new JsonStatsStore(source), new BinaryStatsStore(target));
+        System.out.println("Estadísticas convertidas: " + source + " -> " + target);
+    }
+}
@@ -0,0 +1,72 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comprueba que un {@code stats.bin} de versión 2 (sin checksum) con la
+ * cabecera o las longitudes dañadas se rechaza con {@code IOException}, de
+ * modo que {@link BinaryStatsStore#load()} recurre a la generación anterior
+ * en vez de fallar con {@code NegativeArraySizeException} u
+ * {@code OutOfMemoryError}. Trabaja en un directorio temporal. Termina con
+ * código 1 si algún caso falla.
+ * Uso: {@code java main.model.BinaryStatsStoreCorruptionTest}
+ */
+public final class BinaryStatsStoreCorruptionTest {
+    private static final int MAGIC = 0x53544231;
+
+    private BinaryStatsStoreCorruptionTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("stats-bin");
+        Path file = directory.resolve("stats.bin");
+        BinaryStatsStore store = new BinaryStatsStore(file);
+        Map<String, List<Stat>> previous = Map.of("snake", List.of(new Stat("Puntaje", "Ana", 40, 1L)));
+        store.save(previous);
+        // La segunda escritura deja la primera como .bak.
+        store.save(Map.of("snake", List.of(new Stat("Puntaje", "Ana", 50, 2L))));
+
+        List<String> failures = new ArrayList<>();
+        check(failures, store, file, "cadenas negativas", header(-1, 1));
+        check(failures, store, file, "cadenas de más", header(Integer.MAX_VALUE, 1));
+        check(failures, store, file, "registros negativos", header(0, -1));
+        ByteBuffer badLength = ByteBuffer.allocate(20).putInt(MAGIC).putInt(2).putInt(1).putInt(0).putInt(-5);
+        check(failures, store, file, "longitud de cadena negativa", badLength.array());
+        ByteBuffer hugeLength = ByteBuffer.allocate(20).putInt(MAGIC).putInt(2).putInt(1).putInt(0)
+                .putInt(Integer.MAX_VALUE);
+        check(failures, store, file, "longitud de cadena enorme", hugeLength.array());
+
+        for (Path path : List.of(file, SnapshotFiles.backupOf(file))) {
+            Files.deleteIfExists(path);
+        }
+        Files.delete(directory);
+        if (failures.isEmpty()) {
+            System.out.println("stats.bin: las cabeceras dañadas usan la generación anterior.");
+        } else {
+            failures.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    private static byte[] header(int strings, int records) {
+        return ByteBuffer.allocate(16).putInt(MAGIC).putInt(2).putInt(strings).putInt(records).array();
+    }
+
+    private static void check(List<String> failures, BinaryStatsStore store, Path file, String name, byte[] content) {
+        try {
+            Files.write(file, content);
+            List<Stat> loaded = store.load().get("snake");
+            if (loaded == null || loaded.size() != 1 || loaded.get(0).getValor() != 40) {
+                failures.add(name + ": no se cargó la generación anterior, sino " + loaded);
+            }
+        } catch (Throwable e) {
+            failures.add(name + ": " + e);
+        }
+    }
+}
@@ -6,37 +6,79 @@ import games.snake.SnakeGame;
 import gamesplugin.GameFunction;
 import java.io.File;
 import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.ref.WeakReference;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.net.URL;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Enumeration;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.HashMap;
-import java.util.function.Supplier;
-import java.util.jar.JarEntry;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
 import java.util.jar.JarFile;
-import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import javax.swing.JInternalFrame;
+import javax.swing.SwingUtilities;
 
 public class GameRegistry implements Iterable<GameFunction> {
-    private static GameRegistry instance;
+    private static final String PLUGIN_INDEX_FILE = "plugins.idx";
+    private static final String PREWARM_PROPERTY = "games.prewarm";
+    private static final int DEFAULT_PREWARM = 2;
+    private static final String PLUGINS_DIR_PROPERTY = "games.plugins.dir";
+    private static final String DEFAULT_PLUGINS_DIR = "plugins";
+    private static final String POOL_MAX_PROPERTY = "games.pool.max";
+    private static final int DEFAULT_POOL_MAX = 4;
+    private static final int POOL_MAX = Math.max(1, Integer.getInteger(POOL_MAX_PROPERTY, DEFAULT_POOL_MAX));
+    private static final long IDLE_EVICT_MILLIS = TimeUnit.MINUTES.toMillis(5);
     private final Map<String, GameEntry> games;
-    private final List<GameInfo> cachedInfos;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of(), List.of());
+    private final PluginIndex pluginIndex;
+    private final Map<String, PluginJar> pluginJars = new HashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private PluginDirectoryWatcher watcher;
+    private final ScheduledExecutorService background = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "game-registry");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     private GameRegistry() {
         games = new HashMap<>();
-        cachedInfos = new ArrayList<>();
+        pluginIndex = new PluginIndex(Path.of(PLUGIN_INDEX_FILE));
         registerBuiltInGames();
+        restoreIndexedPlugins();
+        publish();
+        background.scheduleWithFixedDelay(this::evictIdleInstances,
+                IDLE_EVICT_MILLIS, IDLE_EVICT_MILLIS / 5, TimeUnit.MILLISECONDS);
     }
 
     public static GameRegistry getInstance() {
-        if (instance == null) {
-            instance = new GameRegistry();
-        }
-        return instance;
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final GameRegistry INSTANCE = new GameRegistry();
     }
 
     private void registerBuiltInGames() {
@@ -45,156 +87,608 @@ public class GameRegistry implements Iterable<GameFunction> {
         registerGame("memory", "Memory Game", MemoryGame.class, false);
     }
 
-    public synchronized List<GameInfo> loadGamesFromJar(File jarFile) throws Exception {
-        if (jarFile == null || !jarFile.isFile()) {
-            throw new IllegalArgumentException("Archivo JAR inv\u00E1lido");
+    /**
+     * Registra los juegos de los JAR importados en sesiones anteriores. Los JAR
+     * que no cambiaron (mismo tamaño y fecha) se registran sin abrirlos y sus
+     * clases se cargan recién cuando se lanza el juego.
+     */
+    private void restoreIndexedPlugins() {
+        pluginIndex.load();
+        boolean changed = false;
+        for (PluginIndex.JarRecord record : pluginIndex.records()) {
+            Path jar = Path.of(record.path());
+            PluginIndex.JarRecord current;
+            try {
+                current = refreshRecord(record, jar);
+            } catch (IOException e) {
+                current = null;
+            }
+            if (current == null || current.games().isEmpty()) {
+                // El JAR ya no existe o dejó de tener juegos.
+                pluginIndex.remove(jar);
+                changed = true;
+                continue;
+            }
+            PluginJar source = new PluginJar(jar.toFile());
+            pluginJars.put(current.path(), source);
+            List<PluginIndex.Game> registered = new ArrayList<>();
+            for (PluginIndex.Game game : current.games()) {
+                String id = buildAvailableId(game.id());
+                registerFactoryInternal(id, game.displayName(), new PluginGameFactory(source, game.className()), true);
+                source.gameIds.add(id);
+                registered.add(new PluginIndex.Game(game.className(), id, game.displayName()));
+            }
+            if (current != record || !registered.equals(record.games())) {
+                pluginIndex.put(new PluginIndex.JarRecord(current.path(), current.size(),
+                        current.lastModified(), current.sha256(), registered));
+                changed = true;
+            }
         }
-        List<GameInfo> addedGames = new ArrayList<>();
-        URL jarUrl = jarFile.toURI().toURL();
-        URLClassLoader loader = new URLClassLoader(new URL[]{jarUrl}, GameFunction.class.getClassLoader());
-        try (JarFile jar = new JarFile(jarFile)) {
-            Manifest manifest = jar.getManifest();
-            if (manifest != null) {
-                String mainClass = manifest.getMainAttributes().getValue("Main-Class");
-                if (mainClass != null && !mainClass.isBlank()) {
-                    try {
-                        Class<?> rawMain = Class.forName(mainClass.trim(), true, loader);
-                        GameInfo info = tryRegisterLoadedClass(rawMain);
-                        if (info != null) {
-                            addedGames.add(info);
-                        }
-                    } catch (UnsupportedClassVersionError e) {
-                        throw new Exception("El JAR fue compilado con una versi\u00F3n de Java m\u00E1s reciente.", e);
-                    }
+        if (changed) {
+            saveIndex();
+        }
+    }
+
+    private PluginIndex.JarRecord refreshRecord(PluginIndex.JarRecord record, Path jar) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        if (record.matches(attributes)) {
+            return record;
+        }
+        String sha256 = PluginIndex.sha256(jar);
+        List<PluginIndex.Game> found = record.games();
+        if (!sha256.equals(record.sha256())) {
+            found = new ArrayList<>();
+            try (JarFile jarFile = new JarFile(jar.toFile())) {
+                for (String className : PluginClassScanner.findGameClasses(jarFile)) {
+                    String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                    found.add(new PluginIndex.Game(className, normalize(simpleName), buildDisplayName(simpleName)));
                 }
             }
+        }
+        return new PluginIndex.JarRecord(record.path(), attributes.size(),
+                attributes.lastModifiedTime().toMillis(), sha256, found);
+    }
+
+    private synchronized void recordLaunch(String id) {
+        pluginIndex.recordLaunch(id);
+        saveIndex();
+    }
 
-            Enumeration<JarEntry> entries = jar.entries();
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                if (!isClassEntry(entry)) {
+    private void saveIndex() {
+        try {
+            pluginIndex.save();
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar el índice de plugins: " + e.getMessage());
+        }
+    }
+
+    public List<GameInfo> loadGamesFromJar(File jarFile) throws Exception {
+        return loadGamesFromJars(List.of(validJar(jarFile)));
+    }
+
+    public List<GameInfo> loadGamesFromDirectory(File directory) throws Exception {
+        File[] jars = directory == null ? null
+                : directory.listFiles((dir, name) -> name.toLowerCase().endsWith(".jar"));
+        if (jars == null) {
+            throw new IllegalArgumentException("Directorio inv\u00E1lido");
+        }
+        Arrays.sort(jars);
+        return loadGamesFromJars(Arrays.asList(jars));
+    }
+
+    /**
+     * Importa varios JAR de una vez. El escaneo y la carga de clases corren en
+     * paralelo fuera del monitor del registro; los juegos encontrados se
+     * registran juntos al final y, si algún JAR falla, no se registra ninguno.
+     * Un JAR que ya estaba registrado reemplaza a sus juegos anteriores.
+     */
+    public List<GameInfo> loadGamesFromJars(List<File> jarFiles) throws Exception {
+        for (File jarFile : jarFiles) {
+            validJar(jarFile);
+        }
+        Map<String, List<String>> knownClasses;
+        synchronized (this) {
+            knownClasses = pluginIndex.classNamesByDigest();
+        }
+        List<ScannedJar> scanned = scanInParallel(jarFiles, knownClasses);
+        Exception failure = null;
+        for (ScannedJar jar : scanned) {
+            if (jar.error() != null) {
+                if (failure == null) {
+                    failure = jar.error();
+                } else {
+                    failure.addSuppressed(jar.error());
+                }
+            }
+        }
+        if (failure != null) {
+            closeAll(scanned);
+            throw failure;
+        }
+
+        // Solo se registran fábricas: los juegos se construyen al lanzarlos.
+        // Nada de lo que sigue puede fallar, así que el lote entra completo.
+        List<GameInfo> addedGames = new ArrayList<>();
+        List<PluginJar> replaced = new ArrayList<>();
+        synchronized (this) {
+            for (ScannedJar jar : scanned) {
+                String key = PluginIndex.key(jar.file().toPath());
+                PluginJar previous = pluginJars.remove(key);
+                if (previous != null) {
+                    unregisterJar(previous);
+                    replaced.add(previous);
+                    pluginIndex.remove(jar.file().toPath());
+                }
+                if (jar.games().isEmpty()) {
                     continue;
                 }
-                String className = entry.getName()
-                        .replace('/', '.')
-                        .replace(".class", "");
+                PluginJar source = new PluginJar(jar.file(), jar.loader());
+                pluginJars.put(key, source);
+                List<PluginIndex.Game> indexed = new ArrayList<>();
+                for (DiscoveredGame game : jar.games()) {
+                    String simpleName = game.gameClass().getSimpleName();
+                    String uniqueId = buildAvailableId(simpleName);
+                    String displayName = buildDisplayName(simpleName);
+                    registerFactoryInternal(uniqueId, displayName,
+                            new PluginGameFactory(source, game.gameClass().getName(), game.factory()), true);
+                    source.gameIds.add(uniqueId);
+                    addedGames.add(new GameInfo(uniqueId, displayName, true));
+                    indexed.add(new PluginIndex.Game(game.gameClass().getName(), uniqueId, displayName));
+                }
+                pluginIndex.put(new PluginIndex.JarRecord(key,
+                        jar.size(), jar.lastModified(), jar.sha256(), indexed));
+            }
+            if (!addedGames.isEmpty() || !replaced.isEmpty()) {
+                publish();
+                saveIndex();
+            }
+        }
+        for (ScannedJar jar : scanned) {
+            if (jar.games().isEmpty()) {
+                closeQuietly(jar.loader());
+            }
+        }
+        for (PluginJar previous : replaced) {
+            previous.close();
+        }
+        if (!addedGames.isEmpty() || !replaced.isEmpty()) {
+            fireGamesChanged();
+        }
+        if (addedGames.isEmpty()) {
+            throw new Exception(jarFiles.size() == 1
+                    ? "No se encontraron juegos compatibles en el archivo seleccionado."
+                    : "No se encontraron juegos compatibles en los archivos seleccionados.");
+        }
+        return addedGames;
+    }
+
+    /**
+     * Vuelve a importar un JAR si su contenido cambió desde que se registró;
+     * si no estaba registrado, lo importa.
+     */
+    public List<GameInfo> refreshPluginJar(File jarFile) throws Exception {
+        Path jar = validJar(jarFile).toPath();
+        BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+        PluginIndex.JarRecord record;
+        synchronized (this) {
+            record = pluginJars.containsKey(PluginIndex.key(jar)) ? pluginIndex.get(jar) : null;
+        }
+        if (record != null && record.matches(attributes)) {
+            return List.of();
+        }
+        if (record != null) {
+            String sha256 = PluginIndex.sha256(jar);
+            if (sha256.equals(record.sha256())) {
+                synchronized (this) {
+                    pluginIndex.put(new PluginIndex.JarRecord(record.path(), attributes.size(),
+                            attributes.lastModifiedTime().toMillis(), sha256, record.games()));
+                    saveIndex();
+                }
+                return List.of();
+            }
+        }
+        return loadGamesFromJars(List.of(jarFile));
+    }
+
+    /**
+     * Quita del registro los juegos de un JAR y cierra su cargador para que
+     * sus clases puedan descargarse. Las ventanas ya abiertas siguen
+     * funcionando hasta que se cierran.
+     */
+    public List<GameInfo> unloadPluginJar(File jarFile) {
+        Path jar = jarFile.toPath();
+        PluginJar removed;
+        List<GameInfo> removedGames;
+        synchronized (this) {
+            removed = pluginJars.remove(PluginIndex.key(jar));
+            if (removed == null) {
+                return List.of();
+            }
+            removedGames = unregisterJar(removed);
+            pluginIndex.remove(jar);
+            publish();
+            saveIndex();
+        }
+        removed.close();
+        fireGamesChanged();
+        return removedGames;
+    }
+
+    /**
+     * Empieza a vigilar el directorio de plugins ({@code -Dgames.plugins.dir},
+     * {@code plugins} por defecto).
+     */
+    public synchronized void startPluginWatcher() {
+        if (watcher != null) {
+            return;
+        }
+        Path directory = Path.of(System.getProperty(PLUGINS_DIR_PROPERTY, DEFAULT_PLUGINS_DIR));
+        PluginDirectoryWatcher created = new PluginDirectoryWatcher(directory, this);
+        try {
+            created.start();
+            watcher = created;
+        } catch (IOException e) {
+            System.err.println("No se pudo vigilar el directorio de plugins " + directory + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void stopPluginWatcher() {
+        if (watcher != null) {
+            watcher.stop();
+            watcher = null;
+        }
+    }
+
+    synchronized List<File> pluginJarsIn(Path directory) {
+        List<File> found = new ArrayList<>();
+        for (PluginJar jar : pluginJars.values()) {
+            Path parent = jar.file.toPath().toAbsolutePath().normalize().getParent();
+            if (directory.equals(parent)) {
+                found.add(jar.file);
+            }
+        }
+        return found;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    private void fireGamesChanged() {
+        for (Listener listener : listeners) {
+            listener.gamesChanged();
+        }
+    }
+
+    private List<GameInfo> unregisterJar(PluginJar jar) {
+        List<GameInfo> removed = new ArrayList<>();
+        List<GameFunction> idle = new ArrayList<>();
+        for (String id : jar.gameIds) {
+            GameEntry entry = games.remove(id);
+            if (entry != null) {
+                removed.add(entry.info);
+                idle.addAll(entry.retire());
+            }
+        }
+        disposeLater(idle);
+        return removed;
+    }
+
+    private static File validJar(File jarFile) {
+        if (jarFile == null || !jarFile.isFile()) {
+            throw new IllegalArgumentException("Archivo JAR inv\u00E1lido"
+                    + (jarFile == null ? "" : ": " + jarFile.getName()));
+        }
+        return jarFile;
+    }
+
+    private static List<ScannedJar> scanInParallel(List<File> jarFiles, Map<String, List<String>> knownClasses)
+            throws Exception {
+        if (jarFiles.size() == 1) {
+            return List.of(scanJar(jarFiles.get(0), knownClasses));
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors())) {
+            // Cada JAR es una tarea y sus entradas se reparten en el mismo pool.
+            return pool.submit(() -> jarFiles.parallelStream()
+                    .map(jarFile -> scanJar(jarFile, knownClasses))
+                    .toList()).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static ScannedJar scanJar(File jarFile, Map<String, List<String>> knownClasses) {
+        URLClassLoader loader = null;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(jarFile.toPath(), BasicFileAttributes.class);
+            String sha256 = PluginIndex.sha256(jarFile.toPath());
+            loader = newPluginLoader(jarFile);
+            List<DiscoveredGame> found = new ArrayList<>();
+            // Un JAR con el mismo contenido que uno ya indexado no se vuelve a escanear.
+            List<String> classNames = knownClasses.get(sha256);
+            if (classNames == null) {
+                try (JarFile jar = new JarFile(jarFile)) {
+                    classNames = PluginClassScanner.findGameClasses(jar);
+                }
+            }
+            // Solo se cargan las clases que el escaneo del bytecode marcó como
+            // juegos; el resto del JAR nunca pasa por el cargador.
+            for (String className : classNames) {
                 try {
-                    Class<?> rawClass = Class.forName(className, true, loader);
-                    GameInfo info = tryRegisterLoadedClass(rawClass);
-                    if (info != null) {
-                        addedGames.add(info);
+                    Class<?> rawClass = Class.forName(className, false, loader);
+                    if (GameFunction.class.isAssignableFrom(rawClass)
+                            && !Modifier.isAbstract(rawClass.getModifiers())) {
+                        Class<? extends GameFunction> gameClass = rawClass.asSubclass(GameFunction.class);
+                        found.add(new DiscoveredGame(gameClass, resolveFactory(gameClass)));
                     }
-                } catch (ClassNotFoundException | NoClassDefFoundError |
-                         NoSuchMethodException | IllegalArgumentException ignored) {
+                } catch (ClassNotFoundException | NoClassDefFoundError
+                         | NoSuchMethodException | IllegalAccessException ignored) {
                     // Ignoramos clases que no cumplen con los requisitos
-                } catch (UnsupportedClassVersionError e) {
-                    throw new Exception("El JAR fue compilado con una versi\u00F3n de Java m\u00E1s reciente.", e);
                 }
             }
+            return new ScannedJar(jarFile, attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    sha256, loader, found, null);
+        } catch (UnsupportedClassVersionError e) {
+            return ScannedJar.failed(jarFile, loader, new Exception(
+                    "El JAR fue compilado con una versi\u00F3n de Java m\u00E1s reciente: " + jarFile.getName(), e));
         } catch (IOException e) {
-            throw new Exception("No se pudo leer el archivo JAR: " + jarFile.getName(), e);
+            return ScannedJar.failed(jarFile, loader,
+                    new Exception("No se pudo leer el archivo JAR: " + jarFile.getName(), e));
         }
-        if (addedGames.isEmpty()) {
-            throw new Exception("No se encontraron juegos compatibles en el archivo seleccionado.");
+    }
+
+    /**
+     * Cargador propio de un JAR, con las bibliotecas compartidas como padre
+     * (ver {@link PluginClassLoader}).
+     */
+    private static URLClassLoader newPluginLoader(File jarFile) throws IOException {
+        return PluginClassLoader.forJar(jarFile);
+    }
+
+    private static void closeAll(List<ScannedJar> scanned) {
+        for (ScannedJar jar : scanned) {
+            closeQuietly(jar.loader());
+        }
+    }
+
+    private static void closeQuietly(URLClassLoader loader) {
+        if (loader == null) {
+            return;
+        }
+        try {
+            loader.close();
+        } catch (IOException ignored) {
+            // El cargador ya no se usa; no hay nada más que hacer.
         }
-        return addedGames;
     }
 
     public synchronized void registerExternalGame(String id, String displayName, GameFunction instance) {
         registerInstanceInternal(id, displayName, instance, true);
+        publish();
     }
 
     private void registerInstanceInternal(String id, String displayName, GameFunction instance, boolean external) {
         String normalizedId = normalize(id);
         ensureNotRegistered(normalizedId);
         GameEntry entry = new GameEntry(normalizedId, displayName, () -> instance, external);
-        entry.setInitialInstance(instance);
+        entry.shareInstance(instance);
         games.put(normalizedId, entry);
-        cachedInfos.clear();
     }
 
-    private void registerFactoryInternal(String id, String displayName, Supplier<GameFunction> supplier, boolean external) {
+    private void registerFactoryInternal(String id, String displayName, GameFactory factory, boolean external) {
         String normalizedId = normalize(id);
         ensureNotRegistered(normalizedId);
-        games.put(normalizedId, new GameEntry(normalizedId, displayName, supplier, external));
-        cachedInfos.clear();
+        games.put(normalizedId, new GameEntry(normalizedId, displayName, factory, external));
     }
 
     public synchronized void registerGame(String id, String displayName, Class<? extends GameFunction> clazz, boolean external) {
-        registerFactoryInternal(id, displayName, () -> {
-            try {
-                return clazz.getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to instantiate game class: " + clazz.getName(), e);
-            }
-        }, external);
+        MethodHandle factory;
+        try {
+            factory = resolveFactory(clazz);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException("El juego no tiene constructor p\u00FAblico sin argumentos: "
+                    + clazz.getName(), e);
+        }
+        registerFactoryInternal(id, displayName, () -> invokeFactory(factory), external);
+        publish();
     }
 
-    public synchronized List<GameInfo> getAvailableGames() {
-        if (cachedInfos.isEmpty()) {
-            for (GameEntry entry : games.values()) {
-                cachedInfos.add(new GameInfo(entry.id, entry.displayName, entry.external));
-            }
+    /**
+     * Publica una copia inmutable del catálogo. {@code games} solo lo tocan
+     * los escritores bajo el monitor; las lecturas usan la última copia
+     * publicada y nunca esperan a una importación.
+     */
+    private void publish() {
+        List<GameInfo> infos = new ArrayList<>(games.size());
+        List<GameHandle> handles = new ArrayList<>(games.size());
+        for (GameEntry entry : games.values()) {
+            infos.add(entry.info);
+            handles.add(entry.handle);
         }
-        return Collections.unmodifiableList(cachedInfos);
+        snapshot = new Snapshot(Collections.unmodifiableMap(new HashMap<>(games)),
+                Collections.unmodifiableList(infos), Collections.unmodifiableList(handles));
     }
 
-    public synchronized GameFunction getGame(String id) throws Exception {
-        GameEntry entry = games.get(normalize(id));
-        if (entry == null) {
-            throw new IllegalArgumentException("Juego no registrado: " + id);
+    public List<GameInfo> getAvailableGames() {
+        return snapshot.infos();
+    }
+
+    /**
+     * Manejadores de todos los juegos registrados. Recorrerlos no construye
+     * ningún juego; solo {@link GameHandle#get()} lo hace.
+     */
+    public List<GameHandle> getHandles() {
+        return snapshot.handles();
+    }
+
+    /**
+     * Los juegos del catálogo como {@link Stream} perezoso: cada juego se
+     * construye (o se reutiliza) recién cuando el stream lo consume, así que
+     * {@code stream().limit(3)} crea a lo sumo tres. Los que fallan se omiten.
+     */
+    public Stream<GameFunction> stream() {
+        return snapshot.handles().stream()
+                .map(GameHandle::getOrNull)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Abre una partida con una instancia propia del juego: una libre del pool
+     * o una nueva si no se llegó al máximo por juego ({@code -Dgames.pool.max},
+     * 4 por defecto). Cerrar la sesión devuelve la instancia al pool. Los
+     * juegos que exponen un {@code getInstance()} comparten siempre la misma.
+     * No toma el monitor del registro; el lanzamiento se anota en segundo plano.
+     */
+    public GameSession openSession(String id) throws Exception {
+        GameEntry entry = lookup(id);
+        GameFunction game;
+        try {
+            game = entry.acquire();
+        } catch (Exception e) {
+            throw new Exception("No se pudo cargar el juego: " + id, e);
+        }
+        if (game == null) {
+            throw poolExhausted(entry);
         }
+        background.execute(() -> recordLaunch(entry.id));
+        return new GameSession(entry.id, game, () -> {
+            GameFunction discarded = entry.release(game);
+            if (discarded != null) {
+                disposeLater(List.of(discarded));
+            }
+        });
+    }
+
+    /**
+     * Devuelve una instancia del juego sin abrir una sesión. La instancia
+     * queda fuera del pool (la libre más reciente o una nueva), así que
+     * ninguna sesión la recibe después, y no cuenta para el máximo por juego.
+     */
+    public GameFunction getGame(String id) throws Exception {
+        GameEntry entry = lookup(id);
         try {
-            return entry.getOrCreateInstance();
+            return entry.detach();
         } catch (Exception e) {
             throw new Exception("No se pudo cargar el juego: " + id, e);
         }
     }
 
-    private String normalize(String id) {
-        if (id == null || id.trim().isEmpty()) {
-            throw new IllegalArgumentException("El identificador no puede estar vac\u00EDo");
+    private static IllegalStateException poolExhausted(GameEntry entry) {
+        return new IllegalStateException("Ya hay " + POOL_MAX + " partidas abiertas de "
+                + entry.displayName + " (m\u00E1ximo por juego).");
+    }
+
+    private GameEntry lookup(String id) {
+        GameEntry entry = snapshot.games().get(normalize(id));
+        if (entry == null) {
+            throw new IllegalArgumentException("Juego no registrado: " + id);
         }
-        return id.trim().toLowerCase();
+        return entry;
     }
 
-    private boolean isClassEntry(JarEntry entry) {
-        return entry != null
-                && !entry.isDirectory()
-                && entry.getName().endsWith(".class")
-                && !entry.getName().contains("$");
+    private void evictIdleInstances() {
+        List<GameFunction> evicted = new ArrayList<>();
+        for (GameEntry entry : snapshot.games().values()) {
+            evicted.addAll(entry.evictIdle(IDLE_EVICT_MILLIS));
+        }
+        disposeLater(evicted);
     }
 
-    private GameInfo tryRegisterLoadedClass(Class<?> rawClass) throws Exception {
-        if (rawClass == null) {
-            return null;
+    private static void disposeLater(List<GameFunction> evicted) {
+        if (evicted.isEmpty()) {
+            return;
         }
-        if (!GameFunction.class.isAssignableFrom(rawClass)) {
-            return null;
+        SwingUtilities.invokeLater(() -> {
+            for (GameFunction game : evicted) {
+                if (game instanceof JInternalFrame frame) {
+                    frame.dispose();
+                }
+            }
+        });
+    }
+
+    /**
+     * Precalienta en segundo plano los juegos más lanzados según el índice
+     * (cantidad en {@code -Dgames.prewarm}, 2 por defecto): la clase se carga
+     * y se inicializa en el hilo del registro y la instancia se construye
+     * después en el hilo de Swing.
+     */
+    public void prewarmFrequentGames() {
+        int count = Integer.getInteger(PREWARM_PROPERTY, DEFAULT_PREWARM);
+        List<GameEntry> candidates = new ArrayList<>();
+        synchronized (this) {
+            for (GameEntry entry : snapshot.games().values()) {
+                if (pluginIndex.launchesOf(entry.id) > 0 && !entry.isCreated()) {
+                    candidates.add(entry);
+                }
+            }
+            candidates.sort(Comparator.comparingInt((GameEntry entry) -> pluginIndex.launchesOf(entry.id)).reversed());
         }
-        Class<? extends GameFunction> gameClass = rawClass.asSubclass(GameFunction.class);
-        if (Modifier.isAbstract(gameClass.getModifiers())) {
-            return null;
+        for (GameEntry entry : candidates.subList(0, Math.min(Math.max(count, 0), candidates.size()))) {
+            background.execute(() -> {
+                try {
+                    entry.factory.prepare();
+                } catch (Exception e) {
+                    // El error se verá al lanzar el juego.
+                    return;
+                }
+                SwingUtilities.invokeLater(() -> {
+                    try {
+                        entry.prewarm();
+                    } catch (Exception ignored) {
+                        // Ídem: getGame lo volverá a intentar y lo informará.
+                    }
+                });
+            });
         }
+    }
 
-        GameFunction instance = instantiateGame(gameClass);
-        String uniqueId = buildAvailableId(gameClass.getSimpleName());
-        String displayName = buildDisplayName(gameClass.getSimpleName());
-        registerInstanceInternal(uniqueId, displayName, instance, true);
-        return new GameInfo(uniqueId, displayName, true);
+    private String normalize(String id) {
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("El identificador no puede estar vac\u00EDo");
+        }
+        return id.trim().toLowerCase();
     }
 
-    private GameFunction instantiateGame(Class<? extends GameFunction> gameClass) throws Exception {
+    /**
+     * Resuelve una sola vez cómo crear el juego: su {@code getInstance()}
+     * estático si lo tiene, o el constructor público sin argumentos. Resolverlo
+     * no inicializa la clase.
+     */
+    private static MethodHandle resolveFactory(Class<? extends GameFunction> gameClass)
+            throws NoSuchMethodException, IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodType factoryType = MethodType.methodType(GameFunction.class);
         try {
-            var getInstance = gameClass.getMethod("getInstance");
+            Method getInstance = gameClass.getMethod("getInstance");
             if (Modifier.isStatic(getInstance.getModifiers())
                     && GameFunction.class.isAssignableFrom(getInstance.getReturnType())) {
-                return (GameFunction) getInstance.invoke(null);
+                return lookup.unreflect(getInstance).asType(factoryType);
             }
         } catch (NoSuchMethodException ignored) {
             // Sin singleton, seguimos con el constructor.
         }
-        return gameClass.getDeclaredConstructor().newInstance();
+        return lookup.findConstructor(gameClass, MethodType.methodType(void.class)).asType(factoryType);
+    }
+
+    private static GameFunction invokeFactory(MethodHandle factory) throws Exception {
+        try {
+            return (GameFunction) factory.invokeExact();
+        } catch (LinkageError e) {
+            // Inicializadores estáticos que fallan o dependencias ausentes.
+            throw new Exception(e.toString(), e);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
     }
 
     private String buildDisplayName(String simpleName) {
@@ -230,50 +724,336 @@ public class GameRegistry implements Iterable<GameFunction> {
         }
     }
 
+    /**
+     * Recorre los juegos construyéndolos de a uno a medida que se piden,
+     * igual que {@link #stream()}.
+     */
     @Override
     public Iterator<GameFunction> iterator() {
-        List<GameFunction> instances = new ArrayList<>();
-        for (GameEntry entry : games.values()) {
-            try {
-                instances.add(entry.supplier.get());
-            } catch (Exception e) {
-                // Ignoramos juegos que no pudieron instanciarse
-            }
-        }
-        return instances.iterator();
+        return stream().iterator();
     }
 
     private static final class GameEntry {
         private final String id;
         private final String displayName;
-        private final Supplier<GameFunction> supplier;
+        private final GameFactory factory;
         private final boolean external;
-        private GameFunction instance;
+        private final GameInfo info;
+        private final GameHandle handle;
+        private final Set<GameFunction> live = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final ArrayDeque<IdleInstance> idle = new ArrayDeque<>();
+        private GameFunction shared;
+        private WeakReference<GameFunction> first;
+        private boolean created;
+        private boolean retired;
+        private int active;
 
         private GameEntry(String id, String displayName,
-                          Supplier<GameFunction> supplier, boolean external) {
+                          GameFactory factory, boolean external) {
             this.id = id;
             this.displayName = displayName;
-            this.supplier = supplier;
+            this.factory = factory;
             this.external = external;
+            this.info = new GameInfo(id, displayName, external);
+            this.handle = new GameHandle(this);
         }
 
-        private synchronized GameFunction getOrCreateInstance() {
-            if (instance == null) {
-                instance = supplier.get();
+        /** Una instancia para una sesión, o {@code null} si ya hay {@link #POOL_MAX} en uso. */
+        private synchronized GameFunction acquire() throws Exception {
+            if (shared != null) {
+                active++;
+                return shared;
+            }
+            IdleInstance reuse = idle.pollFirst();
+            if (reuse != null) {
+                active++;
+                return reuse.game();
             }
+            if (active >= POOL_MAX) {
+                return null;
+            }
+            GameFunction instance = create();
+            active++;
             return instance;
         }
 
-        private synchronized void setInitialInstance(GameFunction instance) {
-            this.instance = instance;
+        /**
+         * Devuelve al pool la instancia de una sesión. Si el juego ya se quitó
+         * del registro, devuelve la instancia para descartarla.
+         */
+        private synchronized GameFunction release(GameFunction game) {
+            active--;
+            if (game == shared) {
+                if (retired && active == 0) {
+                    shared = null;
+                    return game;
+                }
+                return null;
+            }
+            if (!live.contains(game)) {
+                return null;
+            }
+            if (retired) {
+                live.remove(game);
+                return game;
+            }
+            idle.addFirst(new IdleInstance(game, System.nanoTime()));
+            return null;
+        }
+
+        /**
+         * Una instancia para quien no abre sesión: la libre más reciente o una
+         * nueva, que en ambos casos sale del pool. No cuenta para
+         * {@link #POOL_MAX}, que limita solo las sesiones: quien la recibe se
+         * queda con ella y nunca la devuelve. Los singletons se comparten igual.
+         */
+        private synchronized GameFunction detach() throws Exception {
+            if (shared != null) {
+                return shared;
+            }
+            IdleInstance reuse = idle.pollFirst();
+            if (reuse != null) {
+                live.remove(reuse.game());
+                return reuse.game();
+            }
+            GameFunction instance = create();
+            live.remove(instance);
+            return instance;
+        }
+
+        /** Construye una instancia libre para la próxima sesión, si todavía no hay ninguna. */
+        private synchronized void prewarm() throws Exception {
+            if (shared != null || !idle.isEmpty() || live.size() >= POOL_MAX || retired) {
+                return;
+            }
+            GameFunction instance = create();
+            if (shared == null) {
+                idle.addFirst(new IdleInstance(instance, System.nanoTime()));
+            }
+        }
+
+        /** Quita del pool las instancias libres desde hace más de {@code idleMillis}. */
+        private synchronized List<GameFunction> evictIdle(long idleMillis) {
+            List<GameFunction> evicted = new ArrayList<>();
+            long now = System.nanoTime();
+            // Las más viejas quedan al final de la cola.
+            while (!idle.isEmpty()
+                    && TimeUnit.NANOSECONDS.toMillis(now - idle.peekLast().since()) >= idleMillis) {
+                GameFunction game = idle.pollLast().game();
+                live.remove(game);
+                evicted.add(game);
+            }
+            return evicted;
+        }
+
+        /**
+         * El juego salió del registro: entrega todas las instancias libres (y
+         * el singleton si nadie lo usa) para descartarlas. Las que siguen en
+         * sesiones se descartan al liberarse.
+         */
+        private synchronized List<GameFunction> retire() {
+            retired = true;
+            List<GameFunction> discarded = new ArrayList<>();
+            for (IdleInstance instance : idle) {
+                live.remove(instance.game());
+                discarded.add(instance.game());
+            }
+            idle.clear();
+            if (shared != null && active == 0) {
+                discarded.add(shared);
+                shared = null;
+            }
+            return discarded;
+        }
+
+        private synchronized boolean isCreated() {
+            return created;
+        }
+
+        private synchronized void shareInstance(GameFunction instance) {
+            shared = instance;
+            created = true;
+        }
+
+        private GameFunction create() throws Exception {
+            GameFunction instance = factory.newInstance();
+            GameFunction previous = first == null ? null : first.get();
+            if (instance == previous || !live.add(instance)) {
+                // La fábrica devolvió una instancia que ya teníamos: es un singleton.
+                shared = instance;
+                idle.clear();
+                live.clear();
+            } else if (first == null) {
+                first = new WeakReference<>(instance);
+            }
+            created = true;
+            return instance;
         }
     }
 
     public record GameInfo(String id, String displayName, boolean external) {}
 
+    private record IdleInstance(GameFunction game, long since) {}
+
+    private record Snapshot(Map<String, GameEntry> games, List<GameInfo> infos, List<GameHandle> handles) {}
+
+    /**
+     * Referencia liviana a un juego registrado: da sus datos sin construirlo
+     * y lo construye solo al pedirlo con {@link #get()}.
+     */
+    public static final class GameHandle {
+        private final GameEntry entry;
+
+        private GameHandle(GameEntry entry) {
+            this.entry = entry;
+        }
+
+        public GameInfo info() {
+            return entry.info;
+        }
+
+        public String id() {
+            return entry.id;
+        }
+
+        public String displayName() {
+            return entry.displayName;
+        }
+
+        public boolean external() {
+            return entry.external;
+        }
+
+        /** Si el juego ya fue construido. */
+        public boolean isLoaded() {
+            return entry.isCreated();
+        }
+
+        public GameFunction get() throws Exception {
+            try {
+                return entry.detach();
+            } catch (Exception e) {
+                throw new Exception("No se pudo cargar el juego: " + entry.id, e);
+            }
+        }
+
+        private GameFunction getOrNull() {
+            try {
+                return entry.detach();
+            } catch (Exception e) {
+                // Ignoramos juegos que no pudieron instanciarse
+                return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "GameHandle[" + entry.id + "]";
+        }
+    }
+
+    /**
+     * Aviso de que cambió el catálogo. Se llama desde el hilo que hizo el
+     * cambio, que puede no ser el de Swing.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void gamesChanged();
+    }
+
+    private record DiscoveredGame(Class<? extends GameFunction> gameClass, MethodHandle factory) {}
+
+    private record ScannedJar(File file, long size, long lastModified, String sha256, URLClassLoader loader,
+                              List<DiscoveredGame> games, Exception error) {
+        static ScannedJar failed(File file, URLClassLoader loader, Exception error) {
+            return new ScannedJar(file, 0, 0, null, loader, List.of(), error);
+        }
+    }
+
+    /**
+     * Un JAR de plugins. Si se restauró del índice, su cargador se crea al
+     * lanzar el primero de sus juegos.
+     */
+    private static final class PluginJar {
+        private final File file;
+        private final List<String> gameIds = new ArrayList<>();
+        private URLClassLoader loader;
+        private boolean closed;
+
+        private PluginJar(File file) {
+            this.file = file;
+        }
+
+        private PluginJar(File file, URLClassLoader loader) {
+            this.file = file;
+            this.loader = loader;
+        }
+
+        private synchronized URLClassLoader loader() throws IOException {
+            if (closed) {
+                throw new IOException("El plugin fue descargado: " + file.getName());
+            }
+            if (loader == null) {
+                loader = newPluginLoader(file);
+            }
+            return loader;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            closeQuietly(loader);
+            loader = null;
+        }
+    }
+
     @FunctionalInterface
     private interface GameFactory {
         GameFunction newInstance() throws Exception;
+
+        /** Deja lista la creación (carga de clases) sin construir el juego. */
+        default void prepare() throws Exception {
+        }
+    }
+
+    /**
+     * Fábrica de un juego de plugin. Si no viene resuelta del escaneo, la
+     * primera vez carga la clase y resuelve su {@link MethodHandle}.
+     */
+    private static final class PluginGameFactory implements GameFactory {
+        private final PluginJar source;
+        private final String className;
+        private volatile MethodHandle handle;
+
+        private PluginGameFactory(PluginJar source, String className) {
+            this(source, className, null);
+        }
+
+        private PluginGameFactory(PluginJar source, String className, MethodHandle handle) {
+            this.source = source;
+            this.className = className;
+            this.handle = handle;
+        }
+
+        @Override
+        public synchronized void prepare() throws Exception {
+            try {
+                Class<?> rawClass = Class.forName(className, true, source.loader());
+                if (handle == null) {
+                    handle = resolveFactory(rawClass.asSubclass(GameFunction.class));
+                }
+            } catch (LinkageError e) {
+                throw new Exception(e.toString(), e);
+            }
+        }
+
+        @Override
+        public GameFunction newInstance() throws Exception {
+            MethodHandle resolved = handle;
+            if (resolved == null) {
+                prepare();
+                resolved = handle;
+            }
+            return invokeFactory(resolved);
+        }
     }
 }
@@ -0,0 +1,42 @@
+package main.model;
+
+import gamesplugin.GameFunction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Una partida abierta con {@link GameRegistry#openSession(String)}. Mientras
+ * está abierta su instancia no se entrega a nadie más; al cerrarla vuelve al
+ * pool del juego para reutilizarse.
+ */
+public final class GameSession implements AutoCloseable {
+    private final String gameId;
+    private final GameFunction game;
+    private final Runnable release;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    GameSession(String gameId, GameFunction game, Runnable release) {
+        this.gameId = gameId;
+        this.game = game;
+        this.release = release;
+    }
+
+    public String gameId() {
+        return gameId;
+    }
+
+    public GameFunction game() {
+        return game;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    /** Devuelve la instancia al pool; llamarlo más de una vez no hace nada. */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release.run();
+        }
+    }
+}
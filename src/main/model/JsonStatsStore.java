@@ -0,0 +1,218 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Formato original de {@code stats.json}.
+ */
+public class JsonStatsStore implements StatsStore {
+    private static final String FOOTER_PREFIX = "  \"_crc32\": \"";
+    private static final String FOOTER_SUFFIX = "\"\n}\n";
+    private static final String FOOTER_FORMAT = FOOTER_PREFIX + "%08x" + FOOTER_SUFFIX;
+    private static final int FOOTER_LENGTH = FOOTER_PREFIX.length() + 8 + FOOTER_SUFFIX.length();
+
+    private final Path file;
+
+    public JsonStatsStore(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public boolean exists() {
+        return SnapshotFiles.exists(file);
+    }
+
+    @Override
+    public long size() throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Escribe el snapshot con {@link SnapshotFiles#writeAtomically}. Cada
+     * sección termina en coma porque el último miembro es siempre el pie
+     * {@code "_crc32"}, con el CRC32 de todos los bytes anteriores.
+     */
+    @Override
+    public void save(Map<String, List<Stat>> stats) throws IOException {
+        SnapshotFiles.writeAtomically(file, channel -> {
+            SnapshotFiles.ChannelTextWriter writer = new SnapshotFiles.ChannelTextWriter(channel);
+            writer.append("{\n");
+            for (Map.Entry<String, List<Stat>> entry : stats.entrySet()) {
+                writer.append("  \"");
+                appendEscaped(writer, entry.getKey());
+                writer.append("\": [\n");
+                List<Stat> statsList = entry.getValue();
+                for (int i = 0; i < statsList.size(); i++) {
+                    Stat stat = statsList.get(i);
+                    writer.append("    {\"clave\":\"");
+                    appendEscaped(writer, stat.getClave());
+                    writer.append("\",\"nombre\":\"");
+                    appendEscaped(writer, stat.getNombre());
+                    writer.append("\",\"valor\":").append(stat.getValor())
+                            .append(",\"fecha\":").append(stat.getFecha())
+                            .append(i < statsList.size() - 1 ? "},\n" : "}\n");
+                }
+                writer.append("  ],\n");
+            }
+            writer.append(String.format(FOOTER_FORMAT, writer.checksum()));
+            writer.flush();
+        });
+    }
+
+    @Override
+    public Map<String, List<Stat>> load() throws IOException {
+        return SnapshotFiles.loadWithFallback(file, this::loadFrom);
+    }
+
+    /**
+     * Lee solo la sección del juego pedido; las demás se saltan sin
+     * construir sus registros.
+     */
+    @Override
+    public List<Stat> loadGame(String gameId) throws IOException {
+        return SnapshotFiles.loadWithFallback(file, source -> loadGameFrom(source, gameId));
+    }
+
+    private Map<String, List<Stat>> loadFrom(Path source) throws IOException {
+        verifyChecksum(source);
+        Map<String, List<Stat>> loaded = new HashMap<>();
+        try (StatsJsonReader reader = openReader(source)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String game = reader.nextName().toString();
+                if (reader.peek() != StatsJsonReader.Kind.ARRAY) {
+                    reader.skipValue();
+                    continue;
+                }
+                readStats(reader, loaded.computeIfAbsent(game, k -> new ArrayList<>()));
+            }
+            reader.endObject();
+        }
+        return loaded;
+    }
+
+    private List<Stat> loadGameFrom(Path source, String gameId) throws IOException {
+        verifyChecksum(source);
+        List<Stat> result = new ArrayList<>();
+        try (StatsJsonReader reader = openReader(source)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                CharSequence name = reader.nextName();
+                if (reader.peek() == StatsJsonReader.Kind.ARRAY
+                        && gameId.trim().equalsIgnoreCase(name.toString().trim())) {
+                    readStats(reader, result);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return result;
+    }
+
+    /**
+     * Valida el pie {@code "_crc32"} si existe. Los archivos sin pie
+     * (escritos a mano o por versiones anteriores) se aceptan y solo
+     * dependen de que el JSON sea válido.
+     */
+    private void verifyChecksum(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < FOOTER_LENGTH) {
+                return;
+            }
+            ByteBuffer tail = ByteBuffer.allocate(FOOTER_LENGTH);
+            while (tail.hasRemaining()) {
+                if (channel.read(tail, size - FOOTER_LENGTH + tail.position()) <= 0) {
+                    return;
+                }
+            }
+            String footer = new String(tail.array(), StandardCharsets.US_ASCII);
+            if (!footer.startsWith(FOOTER_PREFIX) || !footer.endsWith(FOOTER_SUFFIX)) {
+                return;
+            }
+            long expected;
+            try {
+                expected = Long.parseLong(footer.substring(FOOTER_PREFIX.length(),
+                        FOOTER_LENGTH - FOOTER_SUFFIX.length()), 16);
+            } catch (NumberFormatException e) {
+                throw new IOException("Pie de checksum inválido en " + source);
+            }
+            long actual = SnapshotFiles.crc32(channel, 0, size - FOOTER_LENGTH);
+            if (actual != expected) {
+                throw new IOException("Checksum inválido en " + source);
+            }
+        }
+    }
+
+    private StatsJsonReader openReader(Path source) throws IOException {
+        return new StatsJsonReader(new InputStreamReader(Files.newInputStream(source), StandardCharsets.UTF_8));
+    }
+
+    private void readStats(StatsJsonReader reader, List<Stat> target) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != StatsJsonReader.Kind.OBJECT) {
+                reader.skipValue();
+                continue;
+            }
+            String clave = "";
+            String nombre = "";
+            int valor = 0;
+            long fecha = 0;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                CharSequence name = reader.nextName();
+                if ("clave".contentEquals(name)) {
+                    clave = nullToEmpty(reader.nextString());
+                } else if ("nombre".contentEquals(name)) {
+                    nombre = nullToEmpty(reader.nextString());
+                } else if ("valor".contentEquals(name)) {
+                    valor = reader.nextInt();
+                } else if ("fecha".contentEquals(name)) {
+                    fecha = reader.nextLong();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            target.add(new Stat(clave, nombre, valor, fecha));
+        }
+        reader.endArray();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static void appendEscaped(SnapshotFiles.ChannelTextWriter writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.append("\\\"");
+                case '\\' -> writer.append("\\\\");
+                case '\n' -> writer.append("\\n");
+                case '\r' -> writer.append("\\r");
+                case '\t' -> writer.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.append(c);
+                    }
+                }
+            }
+        }
+    }
+}
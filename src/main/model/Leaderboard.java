@@ -0,0 +1,205 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clasificación completa de un juego: guarda el mejor resultado de cada
+ * jugador en un {@link RankTree}, así que actualizar cuesta O(log n), el
+ * top-K o cualquier página se leen en orden sin volver a ordenar, y el
+ * puesto, percentil o conteo por rango se responden en O(log n).
+ * Un índice hash por nombre normalizado localiza al jugador en O(1); el
+ * árbol y el índice comparten la misma {@code Entry}.
+ * Los {@link Stat} se copian al entrar y al salir para que nadie pueda
+ * modificar un registro mientras está dentro del árbol. Un candado de
+ * lectura/escritura por tabla permite consultas concurrentes.
+ */
+public class Leaderboard {
+    private final Comparator<Stat> scoreOrder;
+    private final RankTree<Entry> ranking;
+    private final Map<String, Entry> byPlayer = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Leaderboard(Comparator<Stat> scoreOrder) {
+        this.scoreOrder = scoreOrder;
+        this.ranking = new RankTree<>((a, b) -> {
+            int byScore = scoreOrder.compare(a.stat, b.stat);
+            return byScore != 0 ? byScore : a.key.compareTo(b.key);
+        });
+    }
+
+    /**
+     * Inserta el resultado o mejora el del jugador si es mejor según el orden
+     * del juego. Devuelve {@code true} si la clasificación cambió.
+     */
+    public boolean submit(Stat stat) {
+        String key = playerKey(stat);
+        lock.writeLock().lock();
+        try {
+            Entry existing = byPlayer.get(key);
+            if (existing == null) {
+                Entry entry = new Entry(key, copy(stat));
+                byPlayer.put(key, entry);
+                ranking.add(entry);
+                return true;
+            }
+            if (scoreOrder.compare(stat, existing.stat) >= 0) {
+                return false;
+            }
+            ranking.remove(existing);
+            existing.stat.setValor(stat.getValor());
+            existing.stat.setClave(stat.getClave());
+            existing.stat.setFecha(stat.getFecha());
+            ranking.add(existing);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Stat> top(int k) {
+        return page(0, k);
+    }
+
+    public List<Stat> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(limit, ranking.size() - offset)));
+            ranking.collect(Math.max(0, offset), limit, entries);
+            List<Stat> result = new ArrayList<>(entries.size());
+            for (Entry entry : entries) {
+                result.add(copy(entry.stat));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puesto (desde 1) que obtendría el puntaje: uno más que la cantidad de
+     * jugadores con un resultado estrictamente mejor.
+     */
+    public int rankOfScore(int score) {
+        lock.readLock().lock();
+        try {
+            return countBetterThan(score) + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Puesto del jugador, o -1 si no tiene resultados en este juego.
+     */
+    public int rankOf(String playerName) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byPlayer.get(playerKey(playerName));
+            return entry == null ? -1 : rankOfScore(entry.stat.getValor());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percentil del jugador (0 a 100): porcentaje de jugadores que supera,
+     * contando los empates como medio. -1 si no tiene resultados.
+     */
+    public double percentileOf(String playerName) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byPlayer.get(playerKey(playerName));
+            if (entry == null) {
+                return -1;
+            }
+            int score = entry.stat.getValor();
+            int better = countBetterThan(score);
+            int betterOrEqual = countBetterOrEqual(score);
+            int worse = ranking.size() - betterOrEqual;
+            int ties = betterOrEqual - better - 1;
+            return 100.0 * (worse + ties / 2.0) / ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cantidad de jugadores con puntaje dentro de [min, max], en cualquier orden.
+     */
+    public int countInRange(int min, int max) {
+        lock.readLock().lock();
+        try {
+            int low = Math.min(min, max);
+            int high = Math.max(min, max);
+            Stat probeLow = new Stat(null, null, low, 0);
+            Stat probeHigh = new Stat(null, null, high, 0);
+            // En el orden del juego uno de los extremos va primero; el rango es
+            // lo que queda entre "antes del primero" y "hasta el último".
+            boolean lowFirst = scoreOrder.compare(probeLow, probeHigh) <= 0;
+            int first = lowFirst ? low : high;
+            int last = lowFirst ? high : low;
+            return countBetterOrEqual(last) - countBetterThan(first);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int countBetterThan(int score) {
+        Stat probe = new Stat(null, null, score, 0);
+        return ranking.countBefore(entry -> scoreOrder.compare(entry.stat, probe));
+    }
+
+    private int countBetterOrEqual(int score) {
+        Stat probe = new Stat(null, null, score, 0);
+        return ranking.countBefore(entry -> scoreOrder.compare(entry.stat, probe) <= 0 ? -1 : 1);
+    }
+
+    public List<Stat> all() {
+        lock.readLock().lock();
+        try {
+            return page(0, ranking.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String playerKey(Stat stat) {
+        return playerKey(stat.getNombre());
+    }
+
+    /** Clave de un jugador en todas las clasificaciones: sin espacios y en minúsculas. */
+    static String playerKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Stat copy(Stat stat) {
+        return new Stat(stat.getClave(), stat.getNombre(), stat.getValor(), stat.getFecha());
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final Stat stat;
+
+        private Entry(String key, Stat stat) {
+            this.key = key;
+            this.stat = stat;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package main.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Cargador de un JAR de plugins. Su padre es {@link SharedLibraryLoader}, así
+ * que las bibliotecas compartidas se resuelven allí y no se duplican. Lleva el
+ * nombre {@code plugin:<jar>} para que {@link PluginMonitor} pueda atribuirle
+ * lo que se ejecuta con sus clases. Es paralelo: varios hilos pueden cargar
+ * clases distintas del mismo plugin a la vez.
+ */
+final class PluginClassLoader extends URLClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final String pluginId;
+    private final SharedLibraryLoader libraries;
+
+    private PluginClassLoader(String pluginId, URL jar, SharedLibraryLoader libraries) {
+        super(PluginMonitor.loaderName(pluginId), new URL[]{jar}, libraries);
+        this.pluginId = pluginId;
+        this.libraries = libraries;
+    }
+
+    static PluginClassLoader forJar(File jarFile) throws IOException {
+        SharedLibraryLoader libraries = SharedLibraryLoader.getInstance();
+        libraries.addLibrariesOf(jarFile);
+        return new PluginClassLoader(jarFile.getName(), jarFile.toURI().toURL(), libraries);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        Class<?> type = super.loadClass(name, resolve);
+        if (type.getClassLoader() == libraries) {
+            libraries.recordUse(pluginId, type);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,189 @@
+package main.model;
+
+import gamesplugin.GameFunction;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Busca implementaciones de {@link GameFunction} en un JAR leyendo solo la
+ * cabecera de cada {@code .class} (constant pool, clase, superclase e
+ * interfaces), sin cargar ni inicializar ninguna clase del plugin. La
+ * herencia se sigue dentro del JAR; los tipos de fuera se resuelven con el
+ * cargador de la plataforma.
+ */
+final class PluginClassScanner {
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final String GAME_FUNCTION = GameFunction.class.getName().replace('.', '/');
+
+    record ClassHeader(String name, String superName, String[] interfaces, int accessFlags, int majorVersion) {}
+
+    private PluginClassScanner() {
+    }
+
+    /**
+     * Nombres binarios de las clases concretas que implementan
+     * {@link GameFunction}, con la {@code Main-Class} del manifiesto primero.
+     */
+    static List<String> findGameClasses(JarFile jar) throws IOException {
+        // Las cabeceras se leen en paralelo; el orden de las entradas se
+        // conserva para que los ids asignados no dependan de la planificación.
+        List<ClassHeader> scanned = jar.stream()
+                .parallel()
+                .filter(PluginClassScanner::isClassEntry)
+                .map(entry -> readHeaderOrNull(jar, entry))
+                .filter(Objects::nonNull)
+                .toList();
+        Map<String, ClassHeader> headers = new HashMap<>(scanned.size() * 2);
+        List<String> candidates = new ArrayList<>();
+        for (ClassHeader header : scanned) {
+            headers.put(header.name(), header);
+            if (!header.name().contains("$")) {
+                candidates.add(header.name());
+            }
+        }
+        return selectGames(headers, candidates, mainClassOf(jar));
+    }
+
+    static List<String> selectGames(Map<String, ClassHeader> headers, List<String> candidates, String mainClass) {
+        Map<String, Boolean> memo = new HashMap<>();
+        Set<String> games = new LinkedHashSet<>();
+        if (mainClass != null) {
+            String internal = mainClass.replace('.', '/');
+            if (candidates.contains(internal) && isConcreteGame(internal, headers, memo)) {
+                games.add(internal.replace('/', '.'));
+            }
+        }
+        for (String name : candidates) {
+            if (isConcreteGame(name, headers, memo)) {
+                games.add(name.replace('/', '.'));
+            }
+        }
+        return new ArrayList<>(games);
+    }
+
+    static ClassHeader readHeader(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("No es un class file");
+        }
+        in.readUnsignedShort();
+        int major = in.readUnsignedShort();
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNameIndex = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1 -> utf8[i] = in.readUTF();
+                case 7 -> classNameIndex[i] = in.readUnsignedShort();
+                case 8, 16, 19, 20 -> in.skipBytes(2);
+                case 15 -> in.skipBytes(3);
+                case 3, 4, 9, 10, 11, 12, 17, 18 -> in.skipBytes(4);
+                case 5, 6 -> {
+                    in.skipBytes(8);
+                    i++;
+                }
+                default -> throw new IOException("Constant pool desconocido: " + tag);
+            }
+        }
+        int access = in.readUnsignedShort();
+        String name = className(in.readUnsignedShort(), utf8, classNameIndex);
+        int superIndex = in.readUnsignedShort();
+        String superName = superIndex == 0 ? null : className(superIndex, utf8, classNameIndex);
+        String[] interfaces = new String[in.readUnsignedShort()];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaces[i] = className(in.readUnsignedShort(), utf8, classNameIndex);
+        }
+        return new ClassHeader(name, superName, interfaces, access, major);
+    }
+
+    private static boolean isClassEntry(JarEntry entry) {
+        String name = entry.getName();
+        return !entry.isDirectory() && name.endsWith(".class") && !name.endsWith("module-info.class");
+    }
+
+    private static ClassHeader readHeaderOrNull(JarFile jar, JarEntry entry) {
+        try (InputStream in = jar.getInputStream(entry)) {
+            return readHeader(in);
+        } catch (IOException e) {
+            // Entradas que no son class files válidos no pueden ser juegos.
+            return null;
+        }
+    }
+
+    private static boolean isConcreteGame(String name, Map<String, ClassHeader> headers, Map<String, Boolean> memo) {
+        ClassHeader header = headers.get(name);
+        if (header == null || (header.accessFlags() & (ACC_INTERFACE | ACC_ABSTRACT)) != 0) {
+            return false;
+        }
+        return implementsGame(name, headers, memo);
+    }
+
+    private static boolean implementsGame(String name, Map<String, ClassHeader> headers, Map<String, Boolean> memo) {
+        if (name == null) {
+            return false;
+        }
+        if (GAME_FUNCTION.equals(name)) {
+            return true;
+        }
+        Boolean known = memo.get(name);
+        if (known != null) {
+            return known;
+        }
+        // Marca provisional para cortar ciclos en JARs malformados.
+        memo.put(name, Boolean.FALSE);
+        boolean result;
+        ClassHeader header = headers.get(name);
+        if (header == null) {
+            result = implementsOutsideJar(name);
+        } else {
+            result = implementsGame(header.superName(), headers, memo);
+            for (int i = 0; !result && i < header.interfaces().length; i++) {
+                result = implementsGame(header.interfaces()[i], headers, memo);
+            }
+        }
+        memo.put(name, result);
+        return result;
+    }
+
+    private static boolean implementsOutsideJar(String internalName) {
+        if (internalName.startsWith("java/") || internalName.startsWith("javax/")) {
+            return false;
+        }
+        try {
+            Class<?> type = Class.forName(internalName.replace('/', '.'), false,
+                    PluginClassScanner.class.getClassLoader());
+            return GameFunction.class.isAssignableFrom(type);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static String className(int index, String[] utf8, int[] classNameIndex) throws IOException {
+        if (index <= 0 || index >= classNameIndex.length || utf8[classNameIndex[index]] == null) {
+            throw new IOException("Referencia de clase inválida");
+        }
+        return utf8[classNameIndex[index]];
+    }
+
+    private static String mainClassOf(JarFile jar) throws IOException {
+        Manifest manifest = jar.getManifest();
+        if (manifest == null) {
+            return null;
+        }
+        String mainClass = manifest.getMainAttributes().getValue("Main-Class");
+        return mainClass == null || mainClass.isBlank() ? null : mainClass.trim();
+    }
+}
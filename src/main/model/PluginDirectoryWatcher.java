@@ -0,0 +1,123 @@
+package main.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vigila el directorio de plugins con un {@link WatchService}. Los JAR nuevos
+ * o modificados se importan y los borrados se descargan, siempre en este
+ * hilo. Un JAR se procesa cuando lleva {@value #QUIET_MILLIS} ms sin eventos,
+ * para no leerlo a medio copiar.
+ */
+final class PluginDirectoryWatcher {
+    private static final long QUIET_MILLIS = 500;
+
+    private final Path directory;
+    private final GameRegistry registry;
+    private final Thread thread;
+    private WatchService watchService;
+
+    PluginDirectoryWatcher(Path directory, GameRegistry registry) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.registry = registry;
+        this.thread = new Thread(this::runLoop, "plugin-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        thread.start();
+    }
+
+    void stop() {
+        try {
+            watchService.close();
+        } catch (IOException ignored) {
+            // El hilo termina igual al cerrarse el servicio.
+        }
+    }
+
+    private void runLoop() {
+        Map<Path, Long> pending = new HashMap<>();
+        // Lo que se copió con la aplicación cerrada se revisa al arrancar. Se
+        // marca como ya tranquilo; nanoTime puede ser negativo, así que no sirve 0.
+        markAll(pending, System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(QUIET_MILLIS));
+        try {
+            while (true) {
+                WatchKey key = pending.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            markAll(pending, System.nanoTime());
+                        } else if (event.context() instanceof Path name && isJar(name)) {
+                            pending.put(directory.resolve(name), System.nanoTime());
+                        }
+                    }
+                    if (!key.reset()) {
+                        System.err.println("El directorio de plugins dejó de estar disponible: " + directory);
+                        return;
+                    }
+                }
+                long quietSince = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(QUIET_MILLIS);
+                Iterator<Map.Entry<Path, Long>> it = pending.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Path, Long> entry = it.next();
+                    if (entry.getValue() - quietSince <= 0) {
+                        it.remove();
+                        process(entry.getKey());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Se detuvo el watcher.
+        }
+    }
+
+    private void process(Path jar) {
+        File file = jar.toFile();
+        try {
+            if (Files.isRegularFile(jar)) {
+                registry.refreshPluginJar(file);
+            } else {
+                registry.unloadPluginJar(file);
+            }
+        } catch (Exception e) {
+            System.err.println("No se pudo actualizar el plugin " + jar.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private void markAll(Map<Path, Long> pending, long time) {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(directory, "*.{jar,JAR}")) {
+            for (Path jar : jars) {
+                pending.put(jar, time);
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo listar el directorio de plugins: " + e.getMessage());
+        }
+        // Los JAR registrados desde este directorio que ya no están se descargan.
+        for (File known : registry.pluginJarsIn(directory)) {
+            pending.putIfAbsent(known.toPath(), time);
+        }
+    }
+
+    private static boolean isJar(Path name) {
+        return name.toString().toLowerCase().endsWith(".jar");
+    }
+}
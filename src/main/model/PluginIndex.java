@@ -0,0 +1,194 @@
+package main.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice persistente de los JAR importados ({@code plugins.idx}): ruta,
+ * tamaño, fecha de modificación y SHA-256 de cada JAR, con las clases de
+ * juego que se encontraron en él y el id y nombre con que se registraron.
+ * <pre>
+ * jar    \t ruta \t tamaño \t mtime \t sha256
+ * game   \t clase \t id \t nombre
+ * launch \t id \t veces
+ * </pre>
+ * Las líneas {@code game} pertenecen al último {@code jar} anterior; las
+ * {@code launch} cuentan cuántas veces se lanzó cada juego, sea o no de un
+ * plugin, para elegir cuáles precalentar al iniciar. Los campos se escapan
+ * como en {@link StatsJournal}. No es seguro para hilos: {@link GameRegistry}
+ * lo usa bajo su monitor.
+ */
+final class PluginIndex {
+    record Game(String className, String id, String displayName) {}
+
+    record JarRecord(String path, long size, long lastModified, String sha256, List<Game> games) {
+        boolean matches(BasicFileAttributes attributes) {
+            return attributes.size() == size && attributes.lastModifiedTime().toMillis() == lastModified;
+        }
+    }
+
+    private final Path file;
+    private final Map<String, JarRecord> records = new LinkedHashMap<>();
+    private final Map<String, Integer> launches = new HashMap<>();
+
+    private record Contents(Map<String, JarRecord> records, Map<String, Integer> launches) {}
+
+    PluginIndex(Path file) {
+        this.file = file;
+    }
+
+    void load() {
+        records.clear();
+        launches.clear();
+        if (!SnapshotFiles.exists(file)) {
+            return;
+        }
+        try {
+            Contents contents = SnapshotFiles.loadWithFallback(file, PluginIndex::read);
+            records.putAll(contents.records());
+            launches.putAll(contents.launches());
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el índice de plugins: " + e.getMessage());
+        }
+    }
+
+    List<JarRecord> records() {
+        return new ArrayList<>(records.values());
+    }
+
+    JarRecord get(Path jar) {
+        return records.get(key(jar));
+    }
+
+    /** Clases de juego conocidas por SHA-256, para no volver a escanear copias de un JAR ya visto. */
+    Map<String, List<String>> classNamesByDigest() {
+        Map<String, List<String>> known = new HashMap<>();
+        for (JarRecord record : records.values()) {
+            List<String> classNames = new ArrayList<>(record.games().size());
+            for (Game game : record.games()) {
+                classNames.add(game.className());
+            }
+            known.put(record.sha256(), classNames);
+        }
+        return known;
+    }
+
+    void put(JarRecord record) {
+        records.put(record.path(), record);
+    }
+
+    void remove(Path jar) {
+        records.remove(key(jar));
+    }
+
+    int launchesOf(String id) {
+        return launches.getOrDefault(id, 0);
+    }
+
+    void recordLaunch(String id) {
+        launches.merge(id, 1, Integer::sum);
+    }
+
+    void save() throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        SnapshotFiles.writeAtomically(file, channel -> {
+            SnapshotFiles.ChannelTextWriter out = new SnapshotFiles.ChannelTextWriter(channel);
+            for (JarRecord record : records.values()) {
+                line.setLength(0);
+                line.append("jar\t");
+                StatsJournal.appendField(line, record.path()).append('\t')
+                        .append(record.size()).append('\t')
+                        .append(record.lastModified()).append('\t')
+                        .append(record.sha256()).append('\n');
+                for (Game game : record.games()) {
+                    line.append("game\t");
+                    StatsJournal.appendField(line, game.className()).append('\t');
+                    StatsJournal.appendField(line, game.id()).append('\t');
+                    StatsJournal.appendField(line, game.displayName()).append('\n');
+                }
+                out.append(line);
+            }
+            for (Map.Entry<String, Integer> launch : launches.entrySet()) {
+                line.setLength(0);
+                line.append("launch\t");
+                StatsJournal.appendField(line, launch.getKey()).append('\t').append(launch.getValue()).append('\n');
+                out.append(line);
+            }
+            out.flush();
+        });
+    }
+
+    static String key(Path jar) {
+        return jar.toAbsolutePath().normalize().toString();
+    }
+
+    static String sha256(Path jar) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("SHA-256 no disponible", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(jar)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static Contents read(Path source) throws IOException {
+        Map<String, JarRecord> loaded = new LinkedHashMap<>();
+        Map<String, Integer> launchCounts = new HashMap<>();
+        Map<String, List<Game>> games = new HashMap<>();
+        HashSet<String> seenIds = new HashSet<>();
+        String[] fields = new String[5];
+        String currentPath = null;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int count = StatsJournal.splitFields(line, fields);
+                if (count == 5 && "jar".equals(fields[0])) {
+                    try {
+                        currentPath = fields[1];
+                        List<Game> jarGames = new ArrayList<>();
+                        games.put(currentPath, jarGames);
+                        loaded.put(currentPath, new JarRecord(currentPath, Long.parseLong(fields[2]),
+                                Long.parseLong(fields[3]), fields[4], jarGames));
+                    } catch (NumberFormatException e) {
+                        currentPath = null;
+                    }
+                } else if (count == 4 && "game".equals(fields[0]) && currentPath != null
+                        && seenIds.add(fields[2])) {
+                    games.get(currentPath).add(new Game(fields[1], fields[2], fields[3]));
+                } else if (count == 3 && "launch".equals(fields[0])) {
+                    try {
+                        launchCounts.put(fields[1], Integer.parseInt(fields[2]));
+                    } catch (NumberFormatException ignored) {
+                        // Un contador ilegible solo pierde su historial.
+                    }
+                }
+            }
+        }
+        return new Contents(loaded, launchCounts);
+    }
+}
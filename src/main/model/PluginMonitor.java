@@ -0,0 +1,282 @@
+package main.model;
+
+import java.awt.AWTEvent;
+import java.awt.Dialog;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contabilidad por plugin y vigilancia del hilo de Swing. Cada plugin se
+ * carga con un cargador llamado {@code plugin:<jar>}, así que el nombre del
+ * cargador de cada frame de una pila ({@link StackTraceElement#getClassLoaderName()})
+ * dice a qué plugin pertenece.
+ * <p>
+ * Cada {@value #SAMPLE_MILLIS} ms se toma la pila de todos los hilos: el CPU
+ * y los bytes reservados por un hilo desde la muestra anterior
+ * ({@link ThreadMXBean}) se atribuyen al plugin que está en su pila, y el
+ * intervalo completo cuenta como tiempo de Swing del plugin si el hilo es el
+ * de eventos (sus listeners, timers y pintado). Son estimaciones por
+ * muestreo. Un hilo de Swing que atiende eventos dentro de un diálogo modal
+ * abierto por el plugin no cuenta: está esperando al usuario. Si el hilo de Swing no atiende un evento en
+ * {@code -Dplugins.hang.ms} ms (2000 por defecto) con código de un plugin en
+ * la pila, se informa el plugin y la pila. También se suma lo que cada plugin
+ * se ahorró al usar las clases de {@link SharedLibraryLoader} en vez de su copia.
+ * Al cerrar la aplicación el resumen por plugin se escribe en la salida estándar.
+ */
+public final class PluginMonitor {
+    private static final String LOADER_PREFIX = "plugin:";
+    private static final String EVENT_LOOP_CLASS = "java.awt.EventDispatchThread";
+    private static final long SAMPLE_MILLIS = 100;
+    private static final int STACK_DEPTH = 128;
+    private static final long HANG_MILLIS = Long.getLong("plugins.hang.ms", 2000);
+
+    /** Inicio de una llamada de la plataforma al plugin; ver {@link #endCallback}. */
+    public record CallbackStart(String pluginId, long nanos, long modalDialogs) {}
+
+    public record PluginUsage(String pluginId, long cpuMillis, long allocatedBytes, long edtMillis,
+                              long callbackMillis, long hangs, long sharedClassBytes) {}
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.ThreadMXBean allocations;
+    private final Map<String, Counters> usage = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> lastSample = new HashMap<>();
+    private final AtomicLong modalDialogs = new AtomicLong();
+    private final Thread thread;
+
+    private volatile Thread edt;
+    private volatile long heartbeatPosted;
+    private volatile long heartbeatSeen;
+    private boolean hangReported;
+
+    private PluginMonitor() {
+        allocations = threads instanceof com.sun.management.ThreadMXBean sun
+                && sun.isThreadAllocatedMemorySupported() ? sun : null;
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        if (allocations != null && !allocations.isThreadAllocatedMemoryEnabled()) {
+            allocations.setThreadAllocatedMemoryEnabled(true);
+        }
+        thread = new Thread(this::runLoop, "plugin-monitor");
+        thread.setDaemon(true);
+    }
+
+    public static PluginMonitor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final PluginMonitor INSTANCE = new PluginMonitor();
+    }
+
+    public synchronized void start() {
+        if (thread.isAlive()) {
+            return;
+        }
+        // Cuenta los diálogos modales para no medir como llamada el tiempo en que
+        // el plugin espera al usuario.
+        Toolkit.getDefaultToolkit().addAWTEventListener(event -> {
+            if (event.getID() == WindowEvent.WINDOW_OPENED && event.getSource() instanceof Dialog dialog
+                    && dialog.isModal()) {
+                modalDialogs.incrementAndGet();
+            }
+        }, AWTEvent.WINDOW_EVENT_MASK);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::printUsage, "plugin-usage"));
+        thread.start();
+    }
+
+    static String loaderName(String pluginId) {
+        return LOADER_PREFIX + pluginId;
+    }
+
+    /** Id del plugin que cargó la clase, o {@code null} si es de la plataforma. */
+    public static String pluginIdOf(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        return loader == null ? null : pluginIdOfLoader(loader.getName());
+    }
+
+    public CallbackStart beginCallback(String pluginId) {
+        return new CallbackStart(pluginId, System.nanoTime(), modalDialogs.get());
+    }
+
+    /**
+     * Suma el tiempo de una llamada de la plataforma al código del plugin. Si
+     * durante la llamada se abrió un diálogo modal no se suma: la duración
+     * sería la del usuario, no la del plugin.
+     */
+    public void endCallback(CallbackStart start) {
+        if (start.pluginId() != null && modalDialogs.get() == start.modalDialogs()) {
+            counters(start.pluginId()).callbackNanos.add(System.nanoTime() - start.nanos());
+        }
+    }
+
+    /**
+     * Suma una clase que el plugin tomó de las bibliotecas compartidas en vez
+     * de cargar su propia copia; es la estimación de metaspace ahorrado.
+     */
+    void recordSharedClass(String pluginId, long bytes) {
+        counters(pluginId).sharedClassBytes.add(bytes);
+    }
+
+    public List<PluginUsage> getUsage() {
+        List<PluginUsage> result = new ArrayList<>(usage.size());
+        usage.forEach((id, counters) -> result.add(new PluginUsage(id,
+                TimeUnit.NANOSECONDS.toMillis(counters.cpuNanos.sum()),
+                counters.allocatedBytes.sum(),
+                TimeUnit.NANOSECONDS.toMillis(counters.edtNanos.sum()),
+                TimeUnit.NANOSECONDS.toMillis(counters.callbackNanos.sum()),
+                counters.hangs.sum(),
+                counters.sharedClassBytes.sum())));
+        return result;
+    }
+
+    private void printUsage() {
+        List<PluginUsage> all = getUsage();
+        if (all.isEmpty()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder("Uso por plugin:");
+        for (PluginUsage plugin : all) {
+            report.append(System.lineSeparator()).append(String.format(
+                    "  %s: CPU %d ms, memoria %d KB, Swing %d ms, llamadas %d ms, bloqueos %d, clases compartidas %d KB",
+                    plugin.pluginId(), plugin.cpuMillis(), plugin.allocatedBytes() / 1024, plugin.edtMillis(),
+                    plugin.callbackMillis(), plugin.hangs(), plugin.sharedClassBytes() / 1024));
+        }
+        System.out.println(report);
+    }
+
+    private void runLoop() {
+        while (true) {
+            try {
+                Thread.sleep(SAMPLE_MILLIS);
+                sample();
+                checkEventThread();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // Una muestra fallida no debe detener la vigilancia.
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void sample() {
+        long[] ids = threads.getAllThreadIds();
+        ThreadInfo[] infos = threads.getThreadInfo(ids, STACK_DEPTH);
+        long[] allocated = allocations != null ? allocations.getThreadAllocatedBytes(ids) : null;
+        Thread eventThread = edt;
+        Set<Long> alive = new HashSet<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            if (infos[i] == null) {
+                continue;
+            }
+            long id = ids[i];
+            alive.add(id);
+            long cpu = threads.isThreadCpuTimeEnabled() ? threads.getThreadCpuTime(id) : -1;
+            long bytes = allocated != null ? allocated[i] : -1;
+            long[] previous = lastSample.put(id, new long[] {cpu, bytes});
+            String pluginId = pluginIdOf(infos[i].getStackTrace());
+            if (pluginId == null || previous == null) {
+                continue;
+            }
+            Counters counters = counters(pluginId);
+            if (cpu >= 0 && previous[0] >= 0) {
+                counters.cpuNanos.add(cpu - previous[0]);
+            }
+            if (bytes >= 0 && previous[1] >= 0) {
+                counters.allocatedBytes.add(bytes - previous[1]);
+            }
+            if (eventThread != null && eventThread.threadId() == id) {
+                counters.edtNanos.add(TimeUnit.MILLISECONDS.toNanos(SAMPLE_MILLIS));
+            }
+        }
+        lastSample.keySet().retainAll(alive);
+    }
+
+    /**
+     * Manda un latido al hilo de Swing; si el anterior sigue sin atenderse
+     * pasado el umbral y hay un plugin en la pila, lo informa una vez.
+     */
+    private void checkEventThread() {
+        long now = System.nanoTime();
+        if (heartbeatSeen - heartbeatPosted >= 0) {
+            hangReported = false;
+            heartbeatPosted = now;
+            EventQueue.invokeLater(() -> {
+                edt = Thread.currentThread();
+                heartbeatSeen = System.nanoTime();
+            });
+            return;
+        }
+        long blockedMillis = TimeUnit.NANOSECONDS.toMillis(now - heartbeatPosted);
+        Thread eventThread = edt;
+        if (hangReported || blockedMillis < HANG_MILLIS || eventThread == null) {
+            return;
+        }
+        ThreadInfo info = threads.getThreadInfo(eventThread.threadId(), Integer.MAX_VALUE);
+        String pluginId = info == null ? null : pluginIdOf(info.getStackTrace());
+        if (pluginId == null) {
+            return;
+        }
+        hangReported = true;
+        counters(pluginId).hangs.increment();
+        StringBuilder report = new StringBuilder()
+                .append("El hilo de Swing lleva ").append(blockedMillis)
+                .append(" ms bloqueado en el plugin ").append(pluginId).append(':');
+        for (StackTraceElement element : info.getStackTrace()) {
+            report.append(System.lineSeparator()).append("\tat ").append(element);
+        }
+        System.err.println(report);
+    }
+
+    private Counters counters(String pluginId) {
+        return usage.computeIfAbsent(pluginId, id -> new Counters());
+    }
+
+    /**
+     * El primer frame (el más reciente) que pertenece a un plugin. Se corta al
+     * llegar a un bucle de eventos de Swing: lo que está debajo (por ejemplo
+     * el plugin que abrió un diálogo modal) no se está ejecutando.
+     */
+    private static String pluginIdOf(StackTraceElement[] stack) {
+        for (StackTraceElement element : stack) {
+            if (EVENT_LOOP_CLASS.equals(element.getClassName()) && element.getMethodName().startsWith("pump")) {
+                return null;
+            }
+            String pluginId = pluginIdOfLoader(element.getClassLoaderName());
+            if (pluginId != null) {
+                return pluginId;
+            }
+        }
+        return null;
+    }
+
+    private static String pluginIdOfLoader(String loaderName) {
+        return loaderName != null && loaderName.startsWith(LOADER_PREFIX)
+                ? loaderName.substring(LOADER_PREFIX.length())
+                : null;
+    }
+
+    private static final class Counters {
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder edtNanos = new LongAdder();
+        private final LongAdder callbackNanos = new LongAdder();
+        private final LongAdder hangs = new LongAdder();
+        private final LongAdder sharedClassBytes = new LongAdder();
+    }
+}
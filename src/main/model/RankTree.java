@@ -0,0 +1,167 @@
+package main.model;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Árbol de estadísticas de orden (treap con tamaño de subárbol). Además de
+ * insertar y borrar en O(log n) esperado, responde en O(log n) cuántos
+ * elementos quedan antes de una posición dada y permite leer una página
+ * desde cualquier posición sin recorrer las anteriores.
+ */
+final class RankTree<T> {
+    private final Comparator<? super T> order;
+    private Node<T> root;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    RankTree(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void add(T value) {
+        root = insert(root, new Node<>(value, nextPriority()));
+    }
+
+    boolean remove(T value) {
+        int before = size(root);
+        root = delete(root, value);
+        return size(root) != before;
+    }
+
+    /**
+     * Cantidad de elementos para los que {@code probe} devuelve un valor
+     * negativo, es decir, que van antes del punto buscado. {@code probe}
+     * debe ser monótona respecto al orden del árbol.
+     */
+    int countBefore(ToIntFunction<? super T> probe) {
+        int count = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (probe.applyAsInt(node.value) < 0) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    void collect(int offset, int limit, List<T> out) {
+        collect(root, offset, limit, out);
+    }
+
+    private void collect(Node<T> node, int offset, int limit, List<T> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        int leftSize = size(node.left);
+        if (offset < leftSize) {
+            collect(node.left, offset, limit, out);
+        }
+        if (out.size() >= limit) {
+            return;
+        }
+        if (offset <= leftSize) {
+            out.add(node.value);
+        }
+        collect(node.right, Math.max(0, offset - leftSize - 1), limit, out);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> created) {
+        if (node == null) {
+            return created;
+        }
+        if (order.compare(created.value, node.value) < 0) {
+            node.left = insert(node.left, created);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, created);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private Node<T> delete(Node<T> node, T value) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = order.compare(value, node.value);
+        if (cmp < 0) {
+            node.left = delete(node.left, value);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, value);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return update(pivot);
+    }
+
+    private Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return update(pivot);
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private int nextPriority() {
+        // xorshift64: prioridades pseudoaleatorias sin depender de Random.
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) seed;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final int priority;
+        private Node<T> left;
+        private Node<T> right;
+        private int size = 1;
+
+        private Node(T value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package main.model;
+
+import java.io.File;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide cuántas lecturas del catálogo ({@code getAvailableGames} y
+ * {@code getHandles}) por segundo atiende {@link GameRegistry}, primero sin
+ * escritores y después mientras una importación larga tiene tomado el
+ * monitor del registro. Como las lecturas salen de la copia publicada, el
+ * rendimiento no debería caer durante la importación.
+ * <p>
+ * La importación larga se simula tomando el monitor durante toda la fase; si
+ * se pasa un directorio, además se importan sus JAR en paralelo (el índice
+ * {@code plugins.idx} queda en el directorio actual).
+ * Uso: {@code java main.model.RegistryReadBenchmark [segundos] [lectores] [directorioDeJars]}
+ */
+public final class RegistryReadBenchmark {
+    private RegistryReadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        File jars = args.length > 2 ? new File(args[2]) : null;
+        GameRegistry registry = GameRegistry.getInstance();
+
+        // Una fase de calentamiento para que ambas mediciones corran compiladas.
+        measure(registry, readers, 1);
+        double idle = measure(registry, readers, seconds);
+        System.out.printf("Sin escritores:          %,.0f lecturas/s%n", idle);
+
+        AtomicBoolean locked = new AtomicBoolean();
+        CountDownLatch release = new CountDownLatch(1);
+        Thread importer = new Thread(() -> {
+            synchronized (registry) {
+                locked.set(true);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "bench-import");
+        importer.start();
+        while (!locked.get()) {
+            Thread.onSpinWait();
+        }
+        Thread loader = null;
+        if (jars != null) {
+            loader = new Thread(() -> {
+                try {
+                    registry.loadGamesFromDirectory(jars);
+                } catch (Exception e) {
+                    System.err.println("La importación falló: " + e.getMessage());
+                }
+            }, "bench-loader");
+            loader.start();
+        }
+        double busy = measure(registry, readers, seconds);
+        release.countDown();
+        importer.join();
+        if (loader != null) {
+            loader.join();
+        }
+        System.out.printf("Con el monitor tomado:   %,.0f lecturas/s (%.0f%%)%n", busy, 100 * busy / idle);
+        System.exit(0);
+    }
+
+    private static double measure(GameRegistry registry, int readers, int seconds) throws InterruptedException {
+        LongAdder reads = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] threads = new Thread[readers];
+        for (int i = 0; i < readers; i++) {
+            threads[i] = new Thread(() -> {
+                long local = 0;
+                while (running.get()) {
+                    if (!registry.getAvailableGames().isEmpty() && !registry.getHandles().isEmpty()) {
+                        local++;
+                    }
+                }
+                reads.add(local);
+            }, "bench-reader-" + i);
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return reads.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,84 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Clasificaciones por ventana de tiempo de un juego. Cada día tiene su
+ * propio {@link Leaderboard} con el mejor resultado de cada jugador ese día;
+ * "hoy" se lee directo del cubo del día y "semana" mezcla el top-K ya
+ * ordenado de cada cubo, sin recorrer el historial. Los cubos más viejos
+ * que la ventana más larga se descartan al insertar o consultar.
+ */
+final class RollingLeaderboard {
+    private final Comparator<Stat> scoreOrder;
+    private final ZoneId zone;
+    private final int retentionDays;
+    private final NavigableMap<Long, Leaderboard> buckets = new TreeMap<>();
+
+    RollingLeaderboard(Comparator<Stat> scoreOrder, ZoneId zone, int retentionDays) {
+        this.scoreOrder = scoreOrder;
+        this.zone = zone;
+        this.retentionDays = retentionDays;
+    }
+
+    synchronized void submit(Stat stat, long now) {
+        if (stat.getFecha() <= 0) {
+            return;
+        }
+        long today = epochDay(now);
+        long day = epochDay(stat.getFecha());
+        if (day <= today - retentionDays || day > today) {
+            return;
+        }
+        buckets.computeIfAbsent(day, d -> new Leaderboard(scoreOrder)).submit(stat);
+        evict(today);
+    }
+
+    synchronized List<Stat> top(int days, int k, long now) {
+        long today = epochDay(now);
+        evict(today);
+        NavigableMap<Long, Leaderboard> window = buckets.subMap(today - days, false, today, true);
+        if (window.size() == 1) {
+            return window.firstEntry().getValue().top(k);
+        }
+        // Cada cubo aporta a lo sumo k candidatos: el top-k de la ventana
+        // está entre ellos, quedándonos con el mejor de cada jugador.
+        Map<String, Stat> bestByPlayer = new HashMap<>();
+        for (Leaderboard bucket : window.values()) {
+            for (Stat stat : bucket.top(k)) {
+                bestByPlayer.merge(Leaderboard.playerKey(stat.getNombre()), stat, (a, b) -> scoreOrder.compare(b, a) < 0 ? b : a);
+            }
+        }
+        List<Stat> merged = new ArrayList<>(bestByPlayer.values());
+        merged.sort(scoreOrder);
+        return merged.size() > k ? new ArrayList<>(merged.subList(0, k)) : merged;
+    }
+
+    /** Todos los resultados de los cubos vigentes, para persistirlos. */
+    synchronized List<Stat> all(long now) {
+        evict(epochDay(now));
+        List<Stat> all = new ArrayList<>();
+        for (Leaderboard bucket : buckets.values()) {
+            all.addAll(bucket.all());
+        }
+        return all;
+    }
+
+    private void evict(long today) {
+        buckets.headMap(today - retentionDays, true).clear();
+    }
+
+    private long epochDay(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), zone).toEpochDay();
+    }
+}
@@ -0,0 +1,176 @@
+package main.model;
+
+import gamesplugin.GameFunction;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Cargador padre de todos los plugins con las bibliotecas que comparten: las
+ * que un JAR declara en el {@code Class-Path} de su manifiesto y las que están
+ * en la carpeta {@code lib/} junto a él. Cada biblioteca se agrega una sola
+ * vez (por SHA-256), así que sus clases se cargan una vez aunque varios
+ * plugins traigan su propia copia.
+ * <p>
+ * Lleva la cuenta de qué plugins usan cada clase compartida: cada plugin que
+ * usa una clase que otro ya había cargado se ahorra una copia, y ese ahorro
+ * (estimado por el tamaño del {@code .class}) se suma en {@link PluginMonitor}.
+ * Las bibliotecas quedan cargadas hasta cerrar la aplicación.
+ */
+final class SharedLibraryLoader extends URLClassLoader {
+    private static final String LIB_DIR = "lib";
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final Map<String, String> digestsByPath = new HashMap<>();
+    private final Map<String, String> digestsByName = new HashMap<>();
+    private final Set<String> digests = new HashSet<>();
+    private final Map<String, JarFile> libraries = new ConcurrentHashMap<>();
+    private final Map<String, SharedClass> classes = new ConcurrentHashMap<>();
+
+    private SharedLibraryLoader() {
+        super("plugin-libs", new URL[0], GameFunction.class.getClassLoader());
+    }
+
+    static SharedLibraryLoader getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static final class Holder {
+        private static final SharedLibraryLoader INSTANCE = new SharedLibraryLoader();
+    }
+
+    /** Agrega las bibliotecas que declara o trae consigo el JAR del plugin. */
+    void addLibrariesOf(File pluginJar) throws IOException {
+        for (Path library : librariesOf(pluginJar.toPath().toAbsolutePath().normalize())) {
+            addLibrary(library);
+        }
+    }
+
+    private synchronized void addLibrary(Path library) throws IOException {
+        String key = PluginIndex.key(library);
+        if (digestsByPath.containsKey(key)) {
+            return;
+        }
+        String sha256 = PluginIndex.sha256(library);
+        digestsByPath.put(key, sha256);
+        if (!digests.add(sha256)) {
+            return;
+        }
+        String name = library.getFileName().toString();
+        String previous = digestsByName.putIfAbsent(name, sha256);
+        if (previous != null) {
+            // Dos versiones distintas de la misma biblioteca: gana la primera.
+            System.err.println("La biblioteca " + name + " ya se cargó con otro contenido; se usa la primera.");
+            return;
+        }
+        URL url = library.toUri().toURL();
+        libraries.put(url.toString(), new JarFile(library.toFile()));
+        addURL(url);
+    }
+
+    /**
+     * Registra que {@code pluginId} usa una clase de este cargador. Si otro
+     * plugin ya la usaba, el tamaño de la clase cuenta como ahorrado.
+     */
+    void recordUse(String pluginId, Class<?> type) {
+        SharedClass shared = classes.get(type.getName());
+        if (shared == null) {
+            return;
+        }
+        boolean saved;
+        synchronized (shared) {
+            saved = shared.users.add(pluginId) && shared.users.size() > 1;
+        }
+        if (saved) {
+            PluginMonitor.getInstance().recordSharedClass(pluginId, shared.bytes);
+        }
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> type = super.findClass(name);
+        classes.put(name, new SharedClass(classFileSize(type)));
+        return type;
+    }
+
+    /** Tamaño del {@code .class} en su biblioteca, como estimación de lo que ocupa cargada. */
+    private long classFileSize(Class<?> type) {
+        CodeSource source = type.getProtectionDomain().getCodeSource();
+        JarFile library = source == null ? null : libraries.get(source.getLocation().toString());
+        JarEntry entry = library == null ? null
+                : library.getJarEntry(type.getName().replace('.', '/') + ".class");
+        return entry == null ? 0 : Math.max(entry.getSize(), 0);
+    }
+
+    private static Set<Path> librariesOf(Path pluginJar) throws IOException {
+        Set<Path> libraries = new LinkedHashSet<>();
+        Path directory = pluginJar.getParent();
+        try (JarFile jar = new JarFile(pluginJar.toFile())) {
+            Manifest manifest = jar.getManifest();
+            String classPath = manifest == null ? null
+                    : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+            if (classPath != null) {
+                for (String entry : classPath.trim().split("\\s+")) {
+                    Path library = resolveClassPathEntry(directory, entry);
+                    if (library != null && isJar(library)) {
+                        libraries.add(library);
+                    }
+                }
+            }
+        }
+        Path libDirectory = directory.resolve(LIB_DIR);
+        if (Files.isDirectory(libDirectory)) {
+            try (var jars = Files.newDirectoryStream(libDirectory, "*.{jar,JAR}")) {
+                for (Path library : jars) {
+                    libraries.add(library.toAbsolutePath().normalize());
+                }
+            }
+        }
+        return libraries;
+    }
+
+    /** Las entradas del {@code Class-Path} son URL relativas al JAR que las declara. */
+    private static Path resolveClassPathEntry(Path directory, String entry) {
+        if (entry.isEmpty()) {
+            return null;
+        }
+        try {
+            URI uri = directory.toUri().resolve(entry);
+            return "file".equals(uri.getScheme()) ? Path.of(uri).normalize() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isJar(Path path) {
+        return path.getFileName().toString().toLowerCase().endsWith(".jar") && Files.isRegularFile(path);
+    }
+
+    private static final class SharedClass {
+        private final long bytes;
+        private final Set<String> users = new HashSet<>(4);
+
+        private SharedClass(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package main.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Escritura de snapshots a prueba de cortes: el contenido va a un archivo
+ * temporal, se fuerza a disco y recién entonces se renombra atómicamente
+ * sobre el archivo vivo. La generación anterior queda como {@code .bak}
+ * para poder volver a ella si el archivo vivo no pasa la validación.
+ */
+final class SnapshotFiles {
+    interface Body {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    interface Loader<T> {
+        T load(Path file) throws IOException;
+    }
+
+    private SnapshotFiles() {
+    }
+
+    static Path backupOf(Path target) {
+        return target.resolveSibling(target.getFileName() + ".bak");
+    }
+
+    static boolean exists(Path target) {
+        return Files.exists(target) || Files.exists(backupOf(target));
+    }
+
+    static void writeAtomically(Path target, Body body) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            body.writeTo(channel);
+            channel.force(true);
+        }
+        if (Files.exists(target)) {
+            // El vivo se conserva como respaldo sin dejar nunca de existir.
+            Path backup = backupOf(target);
+            Files.deleteIfExists(backup);
+            try {
+                Files.createLink(backup, target);
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target);
+    }
+
+    /**
+     * Carga el archivo vivo y, si falla (truncado, checksum inválido o
+     * inexistente), la generación anterior.
+     */
+    static <T> T loadWithFallback(Path target, Loader<T> loader) throws IOException {
+        IOException failure = null;
+        if (Files.exists(target)) {
+            try {
+                return loader.load(target);
+            } catch (IOException e) {
+                failure = e;
+                System.err.println("Snapshot dañado, se usará la generación anterior: " + e.getMessage());
+            }
+        }
+        Path backup = backupOf(target);
+        if (Files.exists(backup)) {
+            try {
+                return loader.load(backup);
+            } catch (IOException e) {
+                if (failure != null) {
+                    e.addSuppressed(failure);
+                }
+                throw e;
+            }
+        }
+        throw failure != null ? failure : new IOException("No existe " + target);
+    }
+
+    static long crc32(FileChannel channel, long position, long length) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+        long end = position + length;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                throw new IOException("Fin de archivo inesperado al validar el checksum");
+            }
+            position += read;
+            buffer.flip();
+            crc.update(buffer);
+        }
+        return crc.getValue();
+    }
+
+    private static void forceDirectory(Path target) {
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // No todos los sistemas permiten sincronizar un directorio.
+        }
+    }
+
+    /**
+     * Escritor de texto UTF-8 sobre un {@link FileChannel} con un buffer
+     * propio; acumula el CRC32 de los bytes escritos.
+     */
+    static final class ChannelTextWriter {
+        private static final int CHUNK_CHARS = 16 * 1024;
+
+        private final FileChannel channel;
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private final StringBuilder pending = new StringBuilder(CHUNK_CHARS + 256);
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(64 * 1024);
+        private final CRC32 crc = new CRC32();
+
+        ChannelTextWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        ChannelTextWriter append(CharSequence text) throws IOException {
+            pending.append(text);
+            return flushIfFull();
+        }
+
+        ChannelTextWriter append(char c) throws IOException {
+            pending.append(c);
+            return flushIfFull();
+        }
+
+        ChannelTextWriter append(long value) throws IOException {
+            pending.append(value);
+            return flushIfFull();
+        }
+
+        long checksum() throws IOException {
+            flush();
+            return crc.getValue();
+        }
+
+        void flush() throws IOException {
+            CharBuffer chars = CharBuffer.wrap(pending);
+            while (true) {
+                CoderResult result = encoder.encode(chars, bytes, false);
+                drain();
+                if (result.isUnderflow()) {
+                    break;
+                }
+                if (result.isError()) {
+                    result.throwException();
+                }
+            }
+            pending.delete(0, chars.position());
+        }
+
+        private ChannelTextWriter flushIfFull() throws IOException {
+            if (pending.length() >= CHUNK_CHARS) {
+                flush();
+            }
+            return this;
+        }
+
+        private void drain() throws IOException {
+            bytes.flip();
+            crc.update(bytes.duplicate());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+}
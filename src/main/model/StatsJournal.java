@@ -0,0 +1,312 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bitácora de solo-anexado para los resultados de partidas.
+ * Cada resultado se escribe como una línea compacta
+ * {@code juego\tclave\tnombre\tvalor\tfecha}, así el costo por partida no depende
+ * de cuántos registros existan. La compactación rota el archivo a
+ * {@code .1} para que el snapshot pueda escribirse sin bloquear los anexados.
+ */
+final class StatsJournal {
+    interface RecordConsumer {
+        void accept(String gameId, Stat stat);
+    }
+
+    private static final String END_MARKER = "#fin\t";
+
+    private final Path logFile;
+    private final Path rotatedFile;
+    private FileChannel channel;
+    private long bytesSinceRotation;
+
+    StatsJournal(Path logFile) {
+        this.logFile = logFile;
+        this.rotatedFile = logFile.resolveSibling(logFile.getFileName() + ".1");
+        try {
+            // Lo que quedó de la ejecución anterior también cuenta para compactar.
+            bytesSinceRotation = Files.exists(logFile) ? discardTornTail(logFile) : 0;
+        } catch (IOException e) {
+            bytesSinceRotation = 0;
+        }
+    }
+
+    /**
+     * Escribe un lote completo con una sola escritura y un solo {@code force},
+     * de modo que el costo de sincronizar con disco se reparte en el lote.
+     */
+    synchronized void appendAll(List<StatsWriter.PendingRecord> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder(64 * records.size());
+        for (StatsWriter.PendingRecord record : records) {
+            appendRecord(lines, record.gameId(), record.stat());
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+        int bytes = buffer.remaining();
+        FileChannel out = openChannel();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        out.force(false);
+        bytesSinceRotation += bytes;
+    }
+
+    synchronized long getBytesSinceRotation() {
+        return bytesSinceRotation;
+    }
+
+    /**
+     * Mueve la bitácora activa a {@code .1}. Si ya existía una rotación
+     * pendiente (compactación interrumpida) se concatena para no perderla.
+     */
+    synchronized void rotate() throws IOException {
+        closeChannel();
+        if (Files.exists(logFile)) {
+            if (Files.exists(rotatedFile)) {
+                Files.write(rotatedFile, Files.readAllBytes(logFile), StandardOpenOption.APPEND);
+                Files.delete(logFile);
+            } else {
+                Files.move(logFile, rotatedFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        bytesSinceRotation = 0;
+    }
+
+    synchronized void discardRotated() throws IOException {
+        Files.deleteIfExists(rotatedFile);
+    }
+
+    /**
+     * Reproduce primero la rotación pendiente y luego la cola activa.
+     * Una última línea sin {@code '\n'} (corte a mitad de escritura) se
+     * ignora aunque parezca completa: podría ser un valor truncado.
+     */
+    synchronized void replay(RecordConsumer consumer) throws IOException {
+        replayFile(rotatedFile, consumer);
+        replayFile(logFile, consumer);
+    }
+
+    synchronized void close() {
+        closeChannel();
+    }
+
+    /**
+     * Escribe {@code stats} en {@code target} con el formato de la bitácora y
+     * una última línea {@code #fin\tregistros}, con la que
+     * {@link #readSnapshot(Path)} detecta un archivo incompleto.
+     */
+    static void writeSnapshot(Path target, Map<String, List<Stat>> stats) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        SnapshotFiles.writeAtomically(target, channel -> {
+            SnapshotFiles.ChannelTextWriter out = new SnapshotFiles.ChannelTextWriter(channel);
+            int count = 0;
+            for (Map.Entry<String, List<Stat>> entry : stats.entrySet()) {
+                for (Stat stat : entry.getValue()) {
+                    line.setLength(0);
+                    out.append(appendRecord(line, entry.getKey(), stat));
+                    count++;
+                }
+            }
+            out.append(END_MARKER).append(count).append("\n");
+            out.flush();
+        });
+    }
+
+    /** Lee lo escrito por {@link #writeSnapshot}, o la generación anterior si está incompleto. */
+    static Map<String, List<Stat>> readSnapshot(Path target) throws IOException {
+        return SnapshotFiles.loadWithFallback(target, source -> {
+            Map<String, List<Stat>> loaded = new HashMap<>();
+            int[] count = {0};
+            replayFile(source, (gameId, stat) -> {
+                loaded.computeIfAbsent(gameId, k -> new ArrayList<>()).add(stat);
+                count[0]++;
+            });
+            String last = lastLine(source);
+            if (last == null || !last.equals(END_MARKER + count[0])) {
+                throw new IOException("Archivo incompleto: " + source);
+            }
+            return loaded;
+        });
+    }
+
+    private static String lastLine(Path file) throws IOException {
+        if (!endsWithNewline(file)) {
+            return null;
+        }
+        String last = null;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                last = line;
+            }
+        }
+        return last;
+    }
+
+    static StringBuilder appendRecord(StringBuilder lines, String gameId, Stat stat) {
+        appendField(lines, gameId).append('\t');
+        appendField(lines, stat.getClave()).append('\t');
+        appendField(lines, stat.getNombre()).append('\t');
+        lines.append(stat.getValor()).append('\t');
+        return lines.append(stat.getFecha()).append('\n');
+    }
+
+    private static void replayFile(Path file, RecordConsumer consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        boolean complete = endsWithNewline(file);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String[] fields = new String[5];
+            String next = reader.readLine();
+            while (next != null) {
+                String line = next;
+                next = reader.readLine();
+                if (next == null && !complete) {
+                    break;
+                }
+                int count = splitFields(line, fields);
+                // Las líneas sin fecha vienen de bitácoras anteriores.
+                if (count != 4 && count != 5) {
+                    continue;
+                }
+                int valor;
+                long fecha;
+                try {
+                    valor = Integer.parseInt(fields[3]);
+                    fecha = count == 5 ? Long.parseLong(fields[4]) : 0L;
+                } catch (NumberFormatException ignore) {
+                    continue;
+                }
+                consumer.accept(fields[0], new Stat(fields[1], fields[2], valor, fecha));
+            }
+        }
+    }
+
+    private static boolean endsWithNewline(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size == 0) {
+                return true;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            in.read(last, size - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Corta el registro incompleto que pudo quedar al final de la bitácora,
+     * para que el próximo anexado no se pegue a él. Devuelve el tamaño final.
+     */
+    private static long discardTornTail(Path file) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer chunk = ByteBuffer.allocate(4096);
+            long end = out.size();
+            long size = end;
+            while (end > 0) {
+                int length = (int) Math.min(chunk.capacity(), end);
+                long start = end - length;
+                chunk.clear().limit(length);
+                int read = 0;
+                while (chunk.hasRemaining() && read >= 0) {
+                    read = out.read(chunk, start + chunk.position());
+                }
+                for (int i = length - 1; i >= 0; i--) {
+                    if (chunk.get(i) == '\n') {
+                        if (start + i + 1 < size) {
+                            out.truncate(start + i + 1);
+                        }
+                        return start + i + 1;
+                    }
+                }
+                end = start;
+            }
+            out.truncate(0);
+            return 0;
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(logFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+
+    static StringBuilder appendField(StringBuilder out, String value) {
+        if (value == null) {
+            return out;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Separa la línea en {@code fields} y devuelve cuántos campos tenía,
+     * o -1 si tenía más de los que caben.
+     */
+    static int splitFields(String line, String[] fields) {
+        StringBuilder current = new StringBuilder();
+        int field = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                if (field >= fields.length - 1) {
+                    return -1;
+                }
+                fields[field++] = current.toString();
+                current.setLength(0);
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                switch (next) {
+                    case 't' -> current.append('\t');
+                    case 'n' -> current.append('\n');
+                    case 'r' -> current.append('\r');
+                    default -> current.append(next);
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        fields[field] = current.toString();
+        return field + 1;
+    }
+}
@@ -0,0 +1,63 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comprueba que {@link StatsJournal} descarta un último registro cortado a
+ * mitad de escritura (sin {@code '\n'}) aunque sus campos parezcan válidos,
+ * tanto al reproducir la bitácora como al seguir anexando sobre ella.
+ * Trabaja en un directorio temporal. Termina con código 1 si falla.
+ * Uso: {@code java main.model.StatsJournalReplayTest}
+ */
+public final class StatsJournalReplayTest {
+    private StatsJournalReplayTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("stats-journal");
+        Path log = directory.resolve("stats.log");
+        // El registro de Bob perdió la fecha y parte del valor ("17\t1700000000000\n").
+        Files.writeString(log, "memory\tIntentos\tAna\t12\t1700000000000\n"
+                + "memory\tIntentos\tBob\t1", StandardCharsets.UTF_8);
+
+        List<String> failures = new ArrayList<>();
+        StatsJournal journal = new StatsJournal(log);
+        check(failures, "reproducir con la cola cortada", replay(journal),
+                List.of("memory/Ana=12@1700000000000"));
+
+        journal.appendAll(List.of(new StatsWriter.PendingRecord("snake",
+                new Stat("Puntaje", "Carla", 40, 1700000000001L))));
+        journal.close();
+        check(failures, "anexar después de la cola cortada", replay(new StatsJournal(log)),
+                List.of("memory/Ana=12@1700000000000", "snake/Carla=40@1700000000001"));
+
+        for (Path file : List.of(log, directory.resolve("stats.log.1"))) {
+            Files.deleteIfExists(file);
+        }
+        Files.delete(directory);
+        if (failures.isEmpty()) {
+            System.out.println("Bitácora: la cola cortada se descarta.");
+        } else {
+            failures.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    private static List<String> replay(StatsJournal journal) throws Exception {
+        List<String> records = new ArrayList<>();
+        journal.replay((gameId, stat) ->
+                records.add(gameId + "/" + stat.getNombre() + "=" + stat.getValor() + "@" + stat.getFecha()));
+        return records;
+    }
+
+    private static void check(List<String> failures, String step, List<String> actual, List<String> expected) {
+        if (!actual.equals(expected)) {
+            failures.add(step + ": se esperaba " + expected + " y se obtuvo " + actual);
+        }
+    }
+}
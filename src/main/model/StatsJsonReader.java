@@ -0,0 +1,339 @@
+package main.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lector JSON en streaming de una sola pasada. Trabaja sobre un buffer de
+ * caracteres fijo y reutiliza un único {@link StringBuilder} para nombres y
+ * cadenas, así que solo se reserva memoria para los valores que el llamador
+ * convierte a {@code String}. {@link #skipValue()} salta objetos, arreglos y
+ * cadenas completos sin construirlos.
+ */
+final class StatsJsonReader implements Closeable {
+    enum Kind { OBJECT, ARRAY, STRING, NUMBER, BOOLEAN, NULL, END }
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder scratch = new StringBuilder(64);
+    private int pos;
+    private int limit;
+    private long consumed;
+
+    private boolean[] needsComma = new boolean[16];
+    private int depth;
+    private boolean afterName;
+    private boolean valueReady;
+
+    StatsJsonReader(Reader in) {
+        this.in = in;
+    }
+
+    void beginObject() throws IOException {
+        beforeValue();
+        expect('{');
+        push();
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+        pop();
+    }
+
+    void beginArray() throws IOException {
+        beforeValue();
+        expect('[');
+        push();
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+        pop();
+    }
+
+    boolean hasNext() throws IOException {
+        int c = peekChar();
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    Kind peek() throws IOException {
+        beforeValue();
+        int c = peekChar();
+        return switch (c) {
+            case '{' -> Kind.OBJECT;
+            case '[' -> Kind.ARRAY;
+            case '"' -> Kind.STRING;
+            case 't', 'f' -> Kind.BOOLEAN;
+            case 'n' -> Kind.NULL;
+            case -1 -> Kind.END;
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    yield Kind.NUMBER;
+                }
+                throw syntaxError("valor inesperado '" + (char) c + "'");
+            }
+        };
+    }
+
+    /**
+     * Devuelve el nombre del miembro en un buffer reutilizado; solo es válido
+     * hasta la siguiente llamada al lector.
+     */
+    CharSequence nextName() throws IOException {
+        beforeValue();
+        valueReady = false;
+        expect('"');
+        readStringBody(true);
+        expect(':');
+        afterName = true;
+        return scratch;
+    }
+
+    String nextString() throws IOException {
+        Kind kind = peek();
+        valueReady = false;
+        if (kind == Kind.NULL) {
+            readLiteral("null");
+            return null;
+        }
+        if (kind != Kind.STRING) {
+            throw syntaxError("se esperaba una cadena");
+        }
+        expect('"');
+        readStringBody(true);
+        return scratch.toString();
+    }
+
+    int nextInt() throws IOException {
+        long value = nextLong();
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    long nextLong() throws IOException {
+        Kind kind = peek();
+        valueReady = false;
+        if (kind == Kind.NULL) {
+            readLiteral("null");
+            return 0;
+        }
+        if (kind != Kind.NUMBER) {
+            throw syntaxError("se esperaba un número");
+        }
+        boolean negative = false;
+        long value = 0;
+        boolean integral = true;
+        scratch.setLength(0);
+        int c = peekRaw();
+        while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+            pos++;
+            consumed++;
+            scratch.append((char) c);
+            if (c == '-' && scratch.length() == 1) {
+                negative = true;
+            } else if (c >= '0' && c <= '9' && integral) {
+                if (value > (Long.MAX_VALUE - 9) / 10) {
+                    integral = false;
+                } else {
+                    value = value * 10 + (c - '0');
+                }
+            } else {
+                integral = false;
+            }
+            c = peekRaw();
+        }
+        if (!integral) {
+            try {
+                return (long) Double.parseDouble(scratch.toString());
+            } catch (NumberFormatException e) {
+                throw syntaxError("número inválido " + scratch);
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Salta el siguiente valor completo sin materializarlo.
+     */
+    void skipValue() throws IOException {
+        Kind kind = peek();
+        valueReady = false;
+        switch (kind) {
+            case STRING -> {
+                expect('"');
+                readStringBody(false);
+            }
+            case NUMBER -> {
+                int c = peekRaw();
+                while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E' || (c >= '0' && c <= '9')) {
+                    pos++;
+                    consumed++;
+                    c = peekRaw();
+                }
+            }
+            case BOOLEAN -> readLiteral(peekRaw() == 't' ? "true" : "false");
+            case NULL -> readLiteral("null");
+            case OBJECT, ARRAY -> skipContainer();
+            case END -> throw syntaxError("fin de archivo inesperado");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void skipContainer() throws IOException {
+        int nesting = 0;
+        do {
+            int c = nextRaw();
+            switch (c) {
+                case '{', '[' -> nesting++;
+                case '}', ']' -> nesting--;
+                case '"' -> readStringBody(false);
+                case -1 -> throw syntaxError("fin de archivo inesperado");
+                default -> {
+                }
+            }
+        } while (nesting > 0);
+    }
+
+    private void beforeValue() throws IOException {
+        if (valueReady) {
+            return;
+        }
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            if (needsComma[depth]) {
+                expect(',');
+            }
+            needsComma[depth] = true;
+        }
+        valueReady = true;
+    }
+
+    private void push() {
+        valueReady = false;
+        depth++;
+        if (depth == needsComma.length) {
+            boolean[] grown = new boolean[needsComma.length * 2];
+            System.arraycopy(needsComma, 0, grown, 0, needsComma.length);
+            needsComma = grown;
+        }
+        needsComma[depth] = false;
+    }
+
+    private void pop() throws IOException {
+        if (depth == 0) {
+            throw syntaxError("cierre sin apertura");
+        }
+        depth--;
+        valueReady = false;
+        // Tras el valor raíz solo puede quedar espacio: lo demás indica un
+        // archivo dañado aunque el objeto haya cerrado bien.
+        if (depth == 0 && peekChar() != -1) {
+            throw syntaxError("datos después del valor raíz");
+        }
+    }
+
+    private void readStringBody(boolean keep) throws IOException {
+        if (keep) {
+            scratch.setLength(0);
+        }
+        while (true) {
+            int c = nextRaw();
+            if (c == -1) {
+                throw syntaxError("cadena sin terminar");
+            }
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                int escaped = nextRaw();
+                char decoded = switch (escaped) {
+                    case '"', '\\', '/' -> (char) escaped;
+                    case 'b' -> '\b';
+                    case 'f' -> '\f';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    case 't' -> '\t';
+                    case 'u' -> readUnicodeEscape();
+                    default -> throw syntaxError("escape inválido");
+                };
+                if (keep) {
+                    scratch.append(decoded);
+                }
+            } else if (keep) {
+                scratch.append((char) c);
+            }
+        }
+    }
+
+    private char readUnicodeEscape() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(nextRaw(), 16);
+            if (digit < 0) {
+                throw syntaxError("escape \\u inválido");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (nextRaw() != literal.charAt(i)) {
+                throw syntaxError("se esperaba " + literal);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekChar();
+        if (c != expected) {
+            throw syntaxError("se esperaba '" + expected + "'");
+        }
+        pos++;
+        consumed++;
+    }
+
+    private int peekChar() throws IOException {
+        while (true) {
+            int c = peekRaw();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+                consumed++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private int peekRaw() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private int nextRaw() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        consumed++;
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        pos = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("JSON inválido en el carácter " + consumed + ": " + message);
+    }
+}
@@ -1,155 +1,327 @@
 package main.model;
 
 import gamesplugin.Stat;
-import java.io.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Seguro para hilos: cada juego tiene su propio {@link Leaderboard} con su
+ * candado de lectura/escritura, así que juegos distintos no compiten entre sí
+ * y las lecturas de la interfaz no esperan a otras lecturas.
+ */
 public class StatsManager {
-    private static StatsManager instance;
-    private Map<String, List<Stat>> allStats;
+    private volatile Map<String, Leaderboard> allStats;
+    private volatile Map<String, RollingLeaderboard> recentStats;
     private static final String STATS_FILE = "stats.json";
+    private static final String BINARY_STATS_FILE = "stats.bin";
+    private static final String JOURNAL_FILE = "stats.log";
+    private static final String RECENT_FILE = "stats.recent";
+    // Se compacta cuando la bitácora llega a la mitad de lo que ocupa el
+    // snapshot: reescribirlo cuesta entonces un múltiplo fijo de lo anexado,
+    // sin importar cuántos jugadores haya. El mínimo evita compactar a cada
+    // rato mientras el snapshot es chico.
+    private static final int COMPACTION_RATIO = 2;
+    private static final long MIN_COMPACTION_BYTES = 64 * 1024;
+    private static final long COALESCE_WINDOW_MS = 250;
+    private static final int RECENT_RETENTION_DAYS = TimeWindow.WEEK.getDays();
+
+    private final StatsStore store;
+    private final StatsJournal journal;
+    private final Path recentFile = Path.of(RECENT_FILE);
+    private volatile long snapshotBytes;
+    private final StatsWriter writer;
 
 
     private StatsManager() {
-        allStats = new HashMap<>();
+        allStats = new ConcurrentHashMap<>();
+        recentStats = new ConcurrentHashMap<>();
+        store = createStore();
+        journal = new StatsJournal(Path.of(JOURNAL_FILE));
         loadStats();
+        writer = new StatsWriter(journal, COALESCE_WINDOW_MS, this::compactIfNeeded);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "stats-shutdown"));
     }
 
-    public static StatsManager getInstance() {
-        if (instance == null) {
-            instance = new StatsManager();
+    /**
+     * Con {@code -Dstats.store=binary} se usa {@code stats.bin}; si aún no
+     * existe se genera a partir de {@code stats.json}.
+     */
+    private static StatsStore createStore() {
+        StatsStore json = new JsonStatsStore(Path.of(STATS_FILE));
+        if (!"binary".equalsIgnoreCase(System.getProperty("stats.store", "json"))) {
+            return json;
+        }
+        StatsStore binary = new BinaryStatsStore(Path.of(BINARY_STATS_FILE));
+        if (!binary.exists() && json.exists()) {
+            try {
+                StatsStore.convert(json, binary);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
-        return instance;
+        return binary;
+    }
+
+    public static StatsManager getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    // Inicialización perezosa y publicación segura a cargo del cargador de clases.
+    private static final class Holder {
+        private static final StatsManager INSTANCE = new StatsManager();
+    }
+
+    /**
+     * Registra el resultado en memoria y lo encola para la bitácora.
+     * Reemplaza a la pareja addStat + saveStats en el flujo de fin de partida;
+     * la escritura a disco ocurre en el hilo {@code stats-writer}.
+     */
+    public void recordStat(String gameId, Stat stat) {
+        addStat(gameId, stat);
+        writer.enqueue(normalizeGameId(gameId), stat);
+    }
+
+    /**
+     * Espera a que los resultados encolados queden escritos en la bitácora.
+     */
+    public void flush() {
+        writer.flush();
+    }
+
+    public void shutdown() {
+        writer.shutdown();
+        journal.close();
+    }
+
+    public WriterMetrics getWriterMetrics() {
+        return writer.getMetrics();
     }
 
     public void addStat(String gameId, Stat stat) {
-        String key = normalizeGameId(gameId);
-        allStats.putIfAbsent(key, new ArrayList<>());
-        List<Stat> statsList = allStats.get(key);
-        String playerName = stat.getNombre() == null ? "" : stat.getNombre().trim();
-        Stat existing = null;
-        for (Stat s : statsList) {
-            String currentName = s.getNombre() == null ? "" : s.getNombre().trim();
-            if (currentName.equalsIgnoreCase(playerName)) {
-                existing = s;
-                break;
-            }
-        }
+        addStat(allStats, recentStats, normalizeGameId(gameId), stat);
+    }
 
-        if (existing != null) {
-            if (stat.getValor() > existing.getValor()) {
-                existing.setValor(stat.getValor());
-                existing.setClave(stat.getClave());
-            }
-        } else {
-            statsList.add(stat);
-        }
-        sortAndTrim(key, statsList);
+    private void addStat(Map<String, Leaderboard> target, Map<String, RollingLeaderboard> recent,
+                         String key, Stat stat) {
+        leaderboardFor(target, key).submit(stat);
+        addRecent(recent, key, stat);
+    }
+
+    private void addRecent(Map<String, RollingLeaderboard> recent, String key, Stat stat) {
+        recent.computeIfAbsent(key, k -> new RollingLeaderboard(comparatorFor(k),
+                ZoneId.systemDefault(), RECENT_RETENTION_DAYS)).submit(stat, System.currentTimeMillis());
     }
 
     public Map<String, List<Stat>> getAllStats() {
         Map<String, List<Stat>> copy = new HashMap<>();
-        for (Map.Entry<String, List<Stat>> entry : allStats.entrySet()) {
-            copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+        for (Map.Entry<String, Leaderboard> entry : allStats.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().all());
         }
         return copy;
     }
 
+    public Set<String> getGameIds() {
+        return new TreeSet<>(allStats.keySet());
+    }
+
+    public List<Stat> getTop(String gameId, int k) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? new ArrayList<>() : leaderboard.top(k);
+    }
+
+    /**
+     * Top-K del juego dentro de la ventana: hoy, los últimos siete días o
+     * el histórico completo.
+     */
+    public List<Stat> getTop(String gameId, TimeWindow window, int k) {
+        if (window == TimeWindow.ALL_TIME) {
+            return getTop(gameId, k);
+        }
+        RollingLeaderboard recent = recentStats.get(normalizeGameId(gameId));
+        return recent == null ? new ArrayList<>() : recent.top(window.getDays(), k, System.currentTimeMillis());
+    }
+
+    /**
+     * Devuelve una página de la clasificación completa del juego.
+     */
+    public List<Stat> getRanking(String gameId, int offset, int limit) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? new ArrayList<>() : leaderboard.page(offset, limit);
+    }
+
+    public int getRankingSize(String gameId) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? 0 : leaderboard.size();
+    }
+
+    /**
+     * Puesto que obtendría {@code score} en el juego, respetando si el juego
+     * premia puntajes altos o bajos.
+     */
+    public int getRankForScore(String gameId, int score) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? 1 : leaderboard.rankOfScore(score);
+    }
+
+    public int getPlayerRank(String gameId, String playerName) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? -1 : leaderboard.rankOf(playerName);
+    }
+
+    public double getPlayerPercentile(String gameId, String playerName) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? -1 : leaderboard.percentileOf(playerName);
+    }
+
+    public int countScoresInRange(String gameId, int min, int max) {
+        Leaderboard leaderboard = allStats.get(normalizeGameId(gameId));
+        return leaderboard == null ? 0 : leaderboard.countInRange(min, max);
+    }
+
+    private Leaderboard leaderboardFor(Map<String, Leaderboard> target, String key) {
+        return target.computeIfAbsent(key, k -> new Leaderboard(comparatorFor(k)));
+    }
+
     public void saveStats() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(STATS_FILE))) {
-            writer.println("{");
-            Iterator<Map.Entry<String, List<Stat>>> iterator = allStats.entrySet().iterator();
-            while (iterator.hasNext()) {
-                Map.Entry<String, List<Stat>> entry = iterator.next();
-                writer.printf("  \"%s\": [%n", entry.getKey());
-                List<Stat> statsList = entry.getValue();
-                for (int i = 0; i < statsList.size(); i++) {
-                    Stat stat = statsList.get(i);
-                    writer.printf(
-                            "    {\"clave\":\"%s\",\"nombre\":\"%s\",\"valor\":%d}%s%n",
-                            escape(stat.getClave()),
-                            escape(stat.getNombre()),
-                            stat.getValor(),
-                            (i < statsList.size() - 1 ? "," : "")
-                    );
+        writeSnapshot(getAllStats());
+    }
+
+    /**
+     * Rota la bitácora, escribe el snapshot con el estado actual y los cubos
+     * de las ventanas recientes ({@code stats.recent}) y descarta la rotación.
+     * El estado se copia después de rotar, así que incluye todo lo que había
+     * en la bitácora rotada; si el proceso se cae antes de descartarla, la
+     * reproducción es idempotente porque addStat conserva el mejor puntaje.
+     */
+    public void compact() {
+        try {
+            journal.rotate();
+            if (writeSnapshot(getAllStats()) && writeRecent()) {
+                journal.discardRotated();
+            }
+            snapshotBytes = measureSnapshot();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void compactIfNeeded() {
+        long threshold = Math.max(MIN_COMPACTION_BYTES, snapshotBytes / COMPACTION_RATIO);
+        if (journal.getBytesSinceRotation() >= threshold) {
+            compact();
+        }
+    }
+
+    private long measureSnapshot() {
+        try {
+            return store.size() + (Files.exists(recentFile) ? Files.size(recentFile) : 0);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    /**
+     * El snapshot guarda solo el mejor resultado histórico de cada jugador;
+     * los resultados de los últimos días van aparte para no perder las
+     * clasificaciones de hoy y de la semana al compactar.
+     */
+    private boolean writeRecent() {
+        long now = System.currentTimeMillis();
+        Map<String, List<Stat>> recent = new HashMap<>();
+        for (Map.Entry<String, RollingLeaderboard> entry : recentStats.entrySet()) {
+            List<Stat> stats = entry.getValue().all(now);
+            if (!stats.isEmpty()) {
+                recent.put(entry.getKey(), stats);
+            }
+        }
+        try {
+            StatsJournal.writeSnapshot(recentFile, recent);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private boolean writeSnapshot(Map<String, List<Stat>> snapshot) {
+        try {
+            store.save(snapshot);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Recupera el estado leyendo el snapshot y reproduciendo encima la cola
+     * de la bitácora. El resultado se arma en un mapa nuevo y se publica de
+     * una vez, así que los lectores nunca ven una carga a medias.
+     */
+    public synchronized void loadStats() {
+        if (writer != null) {
+            writer.flush();
+        }
+        Map<String, Leaderboard> loaded = new ConcurrentHashMap<>();
+        Map<String, RollingLeaderboard> recent = new ConcurrentHashMap<>();
+        boolean recentLoaded = loadRecent(recent);
+        loadSnapshot(loaded, recentLoaded ? null : recent);
+        try {
+            journal.replay((gameId, stat) -> addStat(loaded, recent, normalizeGameId(gameId), stat));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        allStats = loaded;
+        recentStats = recent;
+        snapshotBytes = measureSnapshot();
+    }
+
+    private boolean loadRecent(Map<String, RollingLeaderboard> recent) {
+        if (!SnapshotFiles.exists(recentFile)) {
+            return false;
+        }
+        try {
+            for (Map.Entry<String, List<Stat>> entry : StatsJournal.readSnapshot(recentFile).entrySet()) {
+                String key = normalizeGameId(entry.getKey());
+                for (Stat stat : entry.getValue()) {
+                    addRecent(recent, key, stat);
                 }
-                writer.printf("  ]%s%n", iterator.hasNext() ? "," : "");
             }
-            writer.println("}");
+            return true;
         } catch (IOException e) {
             e.printStackTrace();
+            recent.clear();
+            return false;
         }
     }
 
-    public void loadStats() {
-        File file = new File(STATS_FILE);
-        if (!file.exists()) {
+    /**
+     * Si no hay {@code stats.recent} (datos de una versión anterior), las
+     * ventanas recientes se reconstruyen con los mejores resultados del
+     * snapshot cuya fecha cae dentro de la ventana; si lo hay,
+     * {@code recent} es {@code null} y el snapshot solo llena el histórico.
+     */
+    private void loadSnapshot(Map<String, Leaderboard> target, Map<String, RollingLeaderboard> recent) {
+        if (!store.exists()) {
             return;
         }
-        Map<String, List<Stat>> loaded = new HashMap<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            String currentGame = null;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty() || line.equals("{") || line.equals("}")) {
-                    continue;
-                }
-                if (line.startsWith("\"")) {
-                    int end = line.indexOf('"', 1);
-                    if (end > 1) {
-                        currentGame = normalizeGameId(line.substring(1, end));
-                        loaded.putIfAbsent(currentGame, new ArrayList<>());
-                    }
-                    continue;
-                }
-                if (line.startsWith("]")) {
-                    currentGame = null;
-                    continue;
-                }
-                if (line.startsWith("{") && currentGame != null) {
-                    if (line.endsWith(",")) {
-                        line = line.substring(0, line.length() - 1);
-                    }
-                    if (line.startsWith("{") && line.endsWith("}")) {
-                        line = line.substring(1, line.length() - 1);
-                    }
-                    String[] fields = line.split(",");
-                    String clave = "";
-                    String nombre = "";
-                    int valor = 0;
-                    for (String field : fields) {
-                        String[] kv = field.split(":", 2);
-                        if (kv.length < 2) {
-                            continue;
-                        }
-                        String key = kv[0].replace("\"", "").trim();
-                        String value = kv[1].trim();
-                        if (value.startsWith("\"")) {
-                            value = value.substring(1, value.length() - 1);
-                        }
-                        switch (key) {
-                            case "clave" -> clave = unescape(value);
-                            case "nombre" -> nombre = unescape(value);
-                            case "valor" -> {
-                                try {
-                                    valor = Integer.parseInt(value);
-                                } catch (NumberFormatException ignore) {
-                                    valor = 0;
-                                }
-                            }
-                            default -> {
-                            }
-                        }
+        try {
+            Map<String, List<Stat>> loaded = store.load();
+            for (Map.Entry<String, List<Stat>> entry : loaded.entrySet()) {
+                String key = normalizeGameId(entry.getKey());
+                for (Stat stat : entry.getValue()) {
+                    if (recent == null) {
+                        leaderboardFor(target, key).submit(stat);
+                    } else {
+                        addStat(target, recent, key, stat);
                     }
-                    loaded.computeIfAbsent(currentGame, k -> new ArrayList<>())
-                            .add(new Stat(clave, nombre, valor));
                 }
             }
-            for (Map.Entry<String, List<Stat>> entry : loaded.entrySet()) {
-                sortAndTrim(entry.getKey(), entry.getValue());
-            }
-            allStats = loaded;
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -162,26 +334,13 @@ public class StatsManager {
         return gameId.trim().toLowerCase();
     }
 
-    private String escape(String value) {
-        return value.replace("\\", "\\\\").replace("\"", "\\\"");
-    }
-
-    private String unescape(String value) {
-        return value.replace("\\\"", "\"").replace("\\\\", "\\");
-    }
-
-    private void sortAndTrim(String gameId, List<Stat> statsList) {
-        Comparator<Stat> comparator = comparatorFor(gameId);
-        statsList.sort(comparator);
-        if (statsList.size() > 3) {
-            statsList.subList(3, statsList.size()).clear();
-        }
-    }
-
     private Comparator<Stat> comparatorFor(String gameId) {
         boolean ascending = normalizeGameId(gameId).equals("memory");
         return ascending
                 ? Comparator.comparingInt(Stat::getValor)
                 : (a, b) -> Integer.compare(b.getValor(), a.getValor());
     }
+
+    public record WriterMetrics(int queueDepth, long batchesWritten, long recordsWritten, long failedBatches,
+                                long lastWriteMicros, long maxWriteMicros, long averageWriteMicros) {}
 }
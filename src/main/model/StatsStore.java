@@ -0,0 +1,40 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend de almacenamiento para el snapshot de estadísticas.
+ * {@link StatsManager} elige la implementación con la propiedad
+ * {@code stats.store} ({@code json} por defecto o {@code binary}).
+ */
+public interface StatsStore {
+    boolean exists();
+
+    Map<String, List<Stat>> load() throws IOException;
+
+    void save(Map<String, List<Stat>> stats) throws IOException;
+
+    /** Tamaño en bytes del snapshot vivo, o 0 si no existe. */
+    long size() throws IOException;
+
+    /**
+     * Carga solo los registros de un juego. Las implementaciones que pueden
+     * saltar secciones lo sobrescriben.
+     */
+    default List<Stat> loadGame(String gameId) throws IOException {
+        List<Stat> stats = load().get(gameId);
+        return stats == null ? new ArrayList<>() : stats;
+    }
+
+    /**
+     * Copia el contenido de un backend a otro, por ejemplo de
+     * {@code stats.json} a {@code stats.bin}.
+     */
+    static void convert(StatsStore from, StatsStore to) throws IOException {
+        to.save(from.load());
+    }
+}
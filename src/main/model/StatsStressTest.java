@@ -0,0 +1,128 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Prueba de carga de {@link StatsManager}: un hilo por núcleo registra
+ * resultados en varios juegos a la vez mientras otro hilo lee las
+ * clasificaciones, y al final se comprueba que no se perdió ninguno, primero
+ * en memoria y después recargando desde disco (snapshot más bitácora).
+ * <p>
+ * Escribe {@code stats.*} en el directorio actual, así que se niega a correr
+ * si ya hay estadísticas ahí. Termina con código 1 si falta algún resultado.
+ * Uso: {@code java main.model.StatsStressTest [resultadosPorHilo] [hilos]}; por
+ * defecto, un hilo por núcleo.
+ */
+public final class StatsStressTest {
+    private static final int GAMES = 4;
+    private static final int PLAYERS_PER_THREAD = 500;
+
+    private StatsStressTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (String name : List.of("stats.json", "stats.bin", "stats.log", "stats.recent")) {
+            if (Files.exists(Path.of(name))) {
+                System.err.println("Ya existe " + name + "; ejecuta la prueba en un directorio vacío.");
+                System.exit(2);
+            }
+        }
+        int perThread = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        StatsManager stats = StatsManager.getInstance();
+        long now = System.currentTimeMillis();
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                for (int g = 0; g < GAMES; g++) {
+                    stats.getTop(gameId(g), 10);
+                    stats.getTop(gameId(g), TimeWindow.DAY, 10);
+                }
+                stats.getAllStats();
+                reads.incrementAndGet();
+            }
+        }, "stress-reader");
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            writers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    stats.recordStat(gameId(i % GAMES), new Stat("Puntaje", player(thread, i), i, now));
+                }
+            }, "stress-writer-" + t);
+            writers[t].start();
+        }
+        reader.start();
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        stats.flush();
+        long elapsed = System.nanoTime() - begin;
+        writing.set(false);
+        reader.join();
+
+        long total = (long) threads * perThread;
+        System.out.printf("%d hilos, %d resultados en %d ms (%.0f/s), %d lecturas completas%n",
+                threads, total, elapsed / 1_000_000, total / (elapsed / 1e9), reads.get());
+
+        Map<String, Integer> expected = expectedBest(threads, perThread);
+        int missingInMemory = missing(stats, expected);
+        stats.loadStats();
+        int missingOnDisk = missing(stats, expected);
+        System.out.println("Faltantes en memoria: " + missingInMemory + ", tras recargar de disco: " + missingOnDisk);
+        System.exit(missingInMemory == 0 && missingOnDisk == 0 ? 0 : 1);
+    }
+
+    /** El mejor puntaje que debería tener cada jugador, por juego. */
+    private static Map<String, Integer> expectedBest(int threads, int perThread) {
+        Map<String, Integer> expected = new HashMap<>();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                expected.merge(gameId(i % GAMES) + "/" + Leaderboard.playerKey(player(t, i)), i, Math::max);
+            }
+        }
+        return expected;
+    }
+
+    private static int missing(StatsManager stats, Map<String, Integer> expected) {
+        Map<String, Integer> found = new HashMap<>();
+        for (Map.Entry<String, List<Stat>> entry : stats.getAllStats().entrySet()) {
+            for (Stat stat : entry.getValue()) {
+                found.put(entry.getKey() + "/" + Leaderboard.playerKey(stat.getNombre()), stat.getValor());
+            }
+        }
+        int missing = 0;
+        for (Map.Entry<String, Integer> entry : expected.entrySet()) {
+            if (!entry.getValue().equals(found.get(entry.getKey()))) {
+                missing++;
+            }
+        }
+        return missing;
+    }
+
+    private static String gameId(int game) {
+        return "stress-" + game;
+    }
+
+    private static String player(int thread, int i) {
+        return "h" + thread + "-j" + (i % PLAYERS_PER_THREAD);
+    }
+}
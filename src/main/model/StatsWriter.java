@@ -0,0 +1,158 @@
+package main.model;
+
+import gamesplugin.Stat;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hilo escritor de estadísticas. El hilo de la interfaz solo encola el
+ * resultado; este hilo agrupa los que llegan dentro de la ventana de
+ * coalescencia y los escribe en la bitácora con una sola operación.
+ */
+final class StatsWriter {
+    record PendingRecord(String gameId, Stat stat) {}
+
+    private static final PendingRecord FLUSH_MARKER = new PendingRecord("", new Stat("", "", 0));
+
+    private final StatsJournal journal;
+    private final Runnable afterBatch;
+    private final long coalesceNanos;
+    private final LinkedBlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private long enqueued;
+    private long processed;
+    private long batchesWritten;
+    private long recordsWritten;
+    private long failedBatches;
+    private long lastWriteNanos;
+    private long maxWriteNanos;
+    private long totalWriteNanos;
+
+    StatsWriter(StatsJournal journal, long coalesceMillis, Runnable afterBatch) {
+        this.journal = journal;
+        this.afterBatch = afterBatch;
+        this.coalesceNanos = TimeUnit.MILLISECONDS.toNanos(coalesceMillis);
+        this.thread = new Thread(this::runLoop, "stats-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    void enqueue(String gameId, Stat stat) {
+        synchronized (this) {
+            enqueued++;
+        }
+        queue.offer(new PendingRecord(gameId, stat));
+    }
+
+    /**
+     * Bloquea hasta que todo lo encolado antes de la llamada esté en disco.
+     */
+    void flush() {
+        long target;
+        synchronized (this) {
+            target = enqueued;
+            if (processed >= target) {
+                return;
+            }
+        }
+        queue.offer(FLUSH_MARKER);
+        synchronized (this) {
+            while (processed < target && thread.isAlive()) {
+                try {
+                    wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    void shutdown() {
+        flush();
+        running = false;
+        queue.offer(FLUSH_MARKER);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    synchronized StatsManager.WriterMetrics getMetrics() {
+        long average = batchesWritten == 0 ? 0 : totalWriteNanos / batchesWritten;
+        return new StatsManager.WriterMetrics(queue.size(), batchesWritten, recordsWritten, failedBatches,
+                TimeUnit.NANOSECONDS.toMicros(lastWriteNanos),
+                TimeUnit.NANOSECONDS.toMicros(maxWriteNanos),
+                TimeUnit.NANOSECONDS.toMicros(average));
+    }
+
+    private void runLoop() {
+        List<PendingRecord> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                running = false;
+            }
+            batch.removeIf(record -> record == FLUSH_MARKER);
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingRecord> batch) throws InterruptedException {
+        PendingRecord first = queue.take();
+        if (first == FLUSH_MARKER) {
+            queue.drainTo(batch);
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + coalesceNanos;
+        long remaining;
+        while (running && (remaining = deadline - System.nanoTime()) > 0) {
+            PendingRecord next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null || next == FLUSH_MARKER) {
+                break;
+            }
+            batch.add(next);
+        }
+        queue.drainTo(batch);
+    }
+
+    private void writeBatch(List<PendingRecord> batch) {
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            journal.appendAll(batch);
+        } catch (IOException e) {
+            // El estado en memoria ya contiene los resultados; la siguiente
+            // compactación los dejará en el snapshot.
+            e.printStackTrace();
+            failed = true;
+        }
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            if (failed) {
+                failedBatches++;
+            } else {
+                batchesWritten++;
+                recordsWritten += batch.size();
+                lastWriteNanos = elapsed;
+                maxWriteNanos = Math.max(maxWriteNanos, elapsed);
+                totalWriteNanos += elapsed;
+            }
+            processed += batch.size();
+            notifyAll();
+        }
+        afterBatch.run();
+    }
+}
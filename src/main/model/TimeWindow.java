@@ -0,0 +1,30 @@
+package main.model;
+
+/**
+ * Ventanas de tiempo para las clasificaciones.
+ */
+public enum TimeWindow {
+    DAY("Hoy", 1),
+    WEEK("Semana", 7),
+    ALL_TIME("Histórico", 0);
+
+    private final String label;
+    private final int days;
+
+    TimeWindow(String label, int days) {
+        this.label = label;
+        this.days = days;
+    }
+
+    /**
+     * Días que cubre la ventana contando el de hoy; 0 para el histórico.
+     */
+    public int getDays() {
+        return days;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
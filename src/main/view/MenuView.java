@@ -7,6 +7,7 @@ import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -46,6 +47,8 @@ public class MenuView extends JInternalFrame {
 
         btnLoadJar.addActionListener(e -> handleLoadExternalJar());
         btnStats.addActionListener(e -> controller.showStats());
+        // El catálogo puede cambiar desde el hilo que vigila los plugins.
+        controller.addGamesListener(() -> SwingUtilities.invokeLater(this::refreshGames));
 
         refreshGames();
     }
@@ -74,20 +77,22 @@ public class MenuView extends JInternalFrame {
 
     private void handleLoadExternalJar() {
         JFileChooser chooser = new JFileChooser();
-        chooser.setDialogTitle("Selecciona un archivo JAR");
+        chooser.setDialogTitle("Selecciona archivos JAR o una carpeta");
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        chooser.setMultiSelectionEnabled(true);
         chooser.setFileFilter(new FileNameExtensionFilter("Archivos JAR", "jar"));
         int result = chooser.showOpenDialog(this);
         if (result != JFileChooser.APPROVE_OPTION) {
             return;
         }
-        File selectedFile = chooser.getSelectedFile();
+        List<File> selection = Arrays.asList(chooser.getSelectedFiles());
         try {
-            List<GameRegistry.GameInfo> added = controller.loadExternalGamesFromJar(selectedFile);
+            List<GameRegistry.GameInfo> added = controller.loadExternalGames(selection);
             refreshGames();
             String nombres = added.stream()
                     .map(GameRegistry.GameInfo::displayName)
                     .collect(Collectors.joining(", "));
-            String message = "Juego(s) agregado(s): " + nombres;
+            String message = "Juego(s) agregado(s) (" + added.size() + "): " + nombres;
             JOptionPane.showMessageDialog(
                     this,
                     message,
@@ -97,7 +102,7 @@ public class MenuView extends JInternalFrame {
         } catch (Exception ex) {
             JOptionPane.showMessageDialog(
                     this,
-                    "No se pudo cargar el JAR seleccionado.\n" + ex.getMessage(),
+                    "No se pudo cargar la selecci\u00F3n; no se agreg\u00F3 ning\u00FAn juego.\n" + ex.getMessage(),
                     "Error al cargar juego",
                     JOptionPane.ERROR_MESSAGE
             );
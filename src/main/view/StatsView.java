@@ -1,55 +1,120 @@
 package main.view;
 
 import main.model.StatsManager;
+import main.model.TimeWindow;
 import gamesplugin.Stat;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 public class StatsView extends JInternalFrame {
+    private static final String ALL_GAMES = "Todos";
+    private static final Integer[] PAGE_SIZES = {3, 10, 100};
+
     private final StatsManager statsManager;
+    private final DefaultTableModel model;
+    private final JComboBox<String> gameSelector;
+    private final JComboBox<Integer> pageSizeSelector;
+    private final JComboBox<TimeWindow> windowSelector;
+    private final JButton btnPrevious;
+    private final JButton btnNext;
+    private final JLabel pageLabel;
+    private int page;
 
     public StatsView(StatsManager statsManager) {
         super("Estadísticas", true, true, true, true);
         this.statsManager = statsManager;
-        setSize(500, 300);
+        setSize(560, 320);
         setLocation(150, 100);
         setLayout(new BorderLayout());
 
-        DefaultTableModel model = new DefaultTableModel();
+        model = new DefaultTableModel();
         model.addColumn("Juego");
+        model.addColumn("Posición");
         model.addColumn("Clave");
         model.addColumn("Nombre");
         model.addColumn("Valor");
 
-        Map<String, List<Stat>> stats = this.statsManager.getAllStats();
-        for (Map.Entry<String, List<Stat>> entry : stats.entrySet()) {
-            String gameId = entry.getKey();
-            List<Stat> top = new ArrayList<>(entry.getValue());
-            boolean ascending = gameId != null && gameId.trim().equalsIgnoreCase("memory");
-            if (ascending) {
-                top.sort((a, b) -> Integer.compare(a.getValor(), b.getValor()));
-            } else {
-                top.sort((a, b) -> Integer.compare(b.getValor(), a.getValor()));
-            }
-            int limit = Math.min(3, top.size());
-            for (int i = 0; i < limit; i++) {
-                Stat stat = top.get(i);
-                model.addRow(new Object[] {
-                        gameId,
-                        stat.getClave(),
-                        stat.getNombre(),
-                        stat.getValor()
-                });
-            }
+        gameSelector = new JComboBox<>();
+        gameSelector.addItem(ALL_GAMES);
+        for (String gameId : statsManager.getGameIds()) {
+            gameSelector.addItem(gameId);
         }
+        pageSizeSelector = new JComboBox<>(PAGE_SIZES);
+        windowSelector = new JComboBox<>(TimeWindow.values());
+        windowSelector.setSelectedItem(TimeWindow.ALL_TIME);
+        JPanel filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 5));
+        filters.add(new JLabel("Juego:"));
+        filters.add(gameSelector);
+        filters.add(new JLabel("Top:"));
+        filters.add(pageSizeSelector);
+        filters.add(windowSelector);
+        add(filters, BorderLayout.NORTH);
 
         JTable tabla = new JTable(model);
         JScrollPane scroll = new JScrollPane(tabla);
         add(scroll, BorderLayout.CENTER);
+
+        btnPrevious = new JButton("Anterior");
+        btnNext = new JButton("Siguiente");
+        pageLabel = new JLabel();
+        JPanel paging = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        paging.add(btnPrevious);
+        paging.add(pageLabel);
+        paging.add(btnNext);
+        add(paging, BorderLayout.SOUTH);
+
+        gameSelector.addActionListener(e -> showPage(0));
+        pageSizeSelector.addActionListener(e -> showPage(0));
+        windowSelector.addActionListener(e -> showPage(0));
+        btnPrevious.addActionListener(e -> showPage(page - 1));
+        btnNext.addActionListener(e -> showPage(page + 1));
+
+        showPage(0);
+    }
+
+    private void showPage(int requestedPage) {
+        model.setRowCount(0);
+        int pageSize = (Integer) pageSizeSelector.getSelectedItem();
+        String selected = (String) gameSelector.getSelectedItem();
+        TimeWindow window = (TimeWindow) windowSelector.getSelectedItem();
+        boolean allGames = selected == null || ALL_GAMES.equals(selected);
+        if (allGames || window != TimeWindow.ALL_TIME) {
+            // Vista resumida: el top de cada juego (o de la ventana), sin paginar.
+            page = 0;
+            for (String gameId : allGames ? statsManager.getGameIds() : Set.of(selected)) {
+                addRows(gameId, 0, statsManager.getTop(gameId, window, pageSize));
+            }
+            updatePaging(1);
+            return;
+        }
+        int total = statsManager.getRankingSize(selected);
+        int pages = Math.max(1, (total + pageSize - 1) / pageSize);
+        page = Math.max(0, Math.min(requestedPage, pages - 1));
+        int offset = page * pageSize;
+        addRows(selected, offset, statsManager.getRanking(selected, offset, pageSize));
+        updatePaging(pages);
+    }
+
+    private void addRows(String gameId, int offset, List<Stat> stats) {
+        for (int i = 0; i < stats.size(); i++) {
+            Stat stat = stats.get(i);
+            model.addRow(new Object[] {
+                    gameId,
+                    offset + i + 1,
+                    stat.getClave(),
+                    stat.getNombre(),
+                    stat.getValor()
+            });
+        }
+    }
+
+    private void updatePaging(int pages) {
+        pageLabel.setText("Página " + (page + 1) + " de " + pages);
+        btnPrevious.setEnabled(page > 0);
+        btnNext.setEnabled(page < pages - 1);
     }
 }